@@ -2,34 +2,43 @@ package io.github.dailystruggle.rtpmixedseedfix;
 
 import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPWorld;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.tools.SyncChunkLoads;
 import io.github.dailystruggle.rtp.paperlib.PaperLib;
+import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.concurrent.ExecutionException;
-
 public final class RTPMixedSeedFix extends JavaPlugin {
     @Override
     public void onEnable() {
         // Plugin startup logic
         Region.maxBiomeChecksPerGen=1;
         BukkitRTPWorld.setBiomeGetter( location -> {
-            Biome biome = Biome.PLAINS;
-            try {
-                int x = location.getBlockX()%16;
-                int y = location.getBlockY();
-                int z = location.getBlockZ()%16;
-                if( x<0 ) x += 16;
-                if( z<0 ) z += 16;
-                Chunk chunk = PaperLib.getChunkAtAsync( location ).get();
-                if( chunk == null ) return;
-                biome = chunk.getBlock( x,y,z ).getBiome();
-            } catch ( InterruptedException | ExecutionException e ) {
-                RTP.log( Level.WARNING, e.getMessage(), e );
+            World world = location.getWorld();
+            if( world == null ) return Biome.PLAINS.name();
+            int cx = location.getBlockX() >> 4;
+            int cz = location.getBlockZ() >> 4;
+            if( world.isChunkLoaded( cx,cz ) ) return biomeAt( world.getChunkAt( cx,cz ),location );
+            if( Bukkit.isPrimaryThread() ) {
+                //waiting here would deadlock the main thread and loading here would generate on it, so go by the
+                //generator instead - the selection checks the real chunk once it's loaded
+                SyncChunkLoads.record( "world:" + world.getName() + " chunk:" + cx + "," + cz + " (biome guessed)" );
+                String guess = BukkitRTPWorld.generatorBiome( location );
+                return ( guess != null ) ? guess : Biome.PLAINS.name();
             }
-            return biome.name();
+            return biomeAt( PaperLib.getChunkAtAsync( location ).join(),location );
         } );
+        //selection uses this one, which waits on the chunk without holding a thread
+        BukkitRTPWorld.setBiomeGetterAsync( location -> PaperLib.getChunkAtAsync( location )
+                .thenApply( chunk -> biomeAt( chunk,location ) ) );
+    }
+
+    private static String biomeAt( Chunk chunk, Location location ) {
+        if( chunk == null ) return Biome.PLAINS.name();
+        return chunk.getBlock( location.getBlockX() & 15,location.getBlockY(),location.getBlockZ() & 15 ).getBiome().name();
     }
 
     @Override
@@ -63,8 +63,16 @@ public class RTPAPI {
         return region.getPublicQueueLength();
     }
 
+    /**
+     * selection waits on chunk loads, which can't complete while the main thread waits on them
+     * <br>on the main thread, this hands off to prepareLocationAsync and returns false
+     */
     public static Boolean prepareLocation( String regionName ) {
         if ( RTP.getInstance() == null ) return false;
+        if ( RTP.serverAccessor.isPrimaryThread() ) {
+            prepareLocationAsync( regionName );
+            return false;
+        }
         Region region = RTP.selectionAPI.getRegionOrDefault( regionName );
         Map.Entry<RTPLocation, Long> location = region.getLocation( null );
         if( location == null || location.getKey() == null ) return false;
@@ -72,9 +80,16 @@ public class RTPAPI {
         return true;
     }
 
+    /**
+     * on the main thread, this hands off to prepareLocationAsync and returns false
+     */
     public static Boolean prepareLocation( String regionName, UUID playerId ) {
         if ( RTP.getInstance() == null ) return false;
         if( playerId == null ) return prepareLocation( regionName );
+        if ( RTP.serverAccessor.isPrimaryThread() ) {
+            prepareLocationAsync( regionName, playerId );
+            return false;
+        }
         Region region = RTP.selectionAPI.getRegionOrDefault( regionName );
         Map.Entry<RTPLocation, Long> location = region.getLocation( null );
         if( location == null || location.getKey() == null ) return false;
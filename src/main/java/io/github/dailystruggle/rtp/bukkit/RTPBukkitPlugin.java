@@ -19,6 +19,8 @@ import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
 import io.github.dailystruggle.rtp.common.database.options.SQLiteDatabaseAccessor;
 import io.github.dailystruggle.rtp.common.factory.FactoryValue;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
 import io.github.dailystruggle.rtp.common.tasks.TPS;
 import io.github.dailystruggle.rtp.common.tasks.teleport.DoTeleport;
 import io.github.dailystruggle.rtp.common.tasks.teleport.LoadChunks;
@@ -28,13 +30,11 @@ import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.nio.file.FileSystemException;
 import java.util.*;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * A Random Teleportation Spigot/Paper plugin, optimized for operators
@@ -45,12 +45,12 @@ public final class RTPBukkitPlugin extends JavaPlugin {
     private static RTPBukkitPlugin instance = null;
     private static Metrics metrics;
 
-    public BukkitTask commandTimer = null;
-    public BukkitTask commandProcessing = null;
-    public BukkitTask asyncTimer = null;
-    public BukkitTask syncTimer = null;
-    public BukkitTask fillTimer = null;
-    public BukkitTask databaseTimer = null;
+    public RTPScheduler.Task commandTimer = null;
+    public RTPScheduler.Task commandProcessing = null;
+    public RTPScheduler.Task asyncTimer = null;
+    public RTPScheduler.Task syncTimer = null;
+    public RTPScheduler.Task fillTimer = null;
+    public RTPScheduler.Task databaseTimer = null;
 
     /**
      * @return the single plugin instance initialized at bukkit startup, faster than bukkit api
@@ -105,7 +105,7 @@ public final class RTPBukkitPlugin extends JavaPlugin {
             rtp.databaseAccessor = new SQLiteDatabaseAccessor( 
                     "jdbc:sqlite:" + databaseDirectory.getAbsolutePath() + File.separator + "RTP.db" );
 
-            Bukkit.getScheduler().scheduleSyncDelayedTask( this, () -> RTP.getInstance().databaseAccessor.startup() );
+            RTP.serverAccessor.scheduler().runGlobal( () -> RTP.getInstance().databaseAccessor.startup(), 0 );
         }
 
         ChunkyBorderChecker.loadChunky();
@@ -119,22 +119,24 @@ public final class RTPBukkitPlugin extends JavaPlugin {
         Objects.requireNonNull( getCommand( "wild") ).setExecutor( mainCommand );
         Objects.requireNonNull( getCommand( "wild") ).setTabCompleter( mainCommand );
 
-        Bukkit.getScheduler().scheduleSyncDelayedTask( this, () -> {
+        RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+        scheduler.runGlobal( () -> {
             while (  RTP.getInstance().startupTasks.size() > 0 ) {
                 RTP.getInstance().startupTasks.execute( Long.MAX_VALUE );
             }
-        } );
+        }, 0 );
 
-        Bukkit.getScheduler().scheduleSyncDelayedTask( this, RTP.serverAccessor::start );
+        scheduler.runGlobal( RTP.serverAccessor::start, 0 );
 //        setupEffects();
 //        if( RTP.serverAccessor.getServerIntVersion()>12 ) {
 //            BukkitTask task = Bukkit.getScheduler().runTask( this, this::setupEffects );
 //        }
-        Bukkit.getScheduler().scheduleSyncDelayedTask( this, this::setupBukkitEvents );
-        Bukkit.getScheduler().scheduleSyncDelayedTask( this, this::setupIntegrations );
-        Bukkit.getScheduler().scheduleSyncDelayedTask( this, this::setupEffects );
+        scheduler.runGlobal( this::setupBukkitEvents, 0 );
+        scheduler.runGlobal( this::setupIntegrations, 0 );
+        scheduler.runGlobal( this::setupEffects, 0 );
 
-        Bukkit.getScheduler().runTaskTimer( this, new TPS(), 0, 1 );
+        //folia has no server-wide tick to report, but its global region still ticks at the usual rate
+        if ( scheduler.isRegionized() || !OnServerTick.register( this ) ) scheduler.runGlobalTimer( new TPS(), 0, 1 );
 
         SendMessage.sendMessage( Bukkit.getConsoleSender(), "" );
 
@@ -180,6 +182,11 @@ public final class RTPBukkitPlugin extends JavaPlugin {
         if ( asyncTimer != null ) asyncTimer.cancel();
         if ( fillTimer != null ) fillTimer.cancel();
         if ( databaseTimer != null ) databaseTimer.cancel();
+        try {
+            BlockingStage.shutdown();
+        } catch ( NoClassDefFoundError ignored ) {
+            //catch plugin replaced, no use for old logs
+        }
 
 
 //        onChunkLoad.shutdown();
@@ -191,11 +198,7 @@ public final class RTPBukkitPlugin extends JavaPlugin {
             //catch plugin replaced, no use for old logs
         }
 
-        List<BukkitTask> pendingTasks = Bukkit.getScheduler().getPendingTasks().stream().filter( 
-                b -> b.getOwner().getName().equalsIgnoreCase( "RTP" ) && !b.isSync() && !b.isCancelled() ).collect( Collectors.toList() );
-        for ( BukkitTask pendingTask : pendingTasks ) {
-            pendingTask.cancel();
-        }
+        if ( RTP.serverAccessor != null ) RTP.serverAccessor.scheduler().cancelAll();
 
 
         try {
@@ -228,6 +231,8 @@ public final class RTPBukkitPlugin extends JavaPlugin {
         Bukkit.getPluginManager().registerEvents( new OnPlayerQuit(), this );
         Bukkit.getPluginManager().registerEvents( new OnPlayerRespawn(), this );
         Bukkit.getPluginManager().registerEvents( new OnPlayerTeleport(), this );
+        Bukkit.getPluginManager().registerEvents( new OnWorldUnload(), this );
+        OnWorldBorderChange.register( this );
         if ( RTP.serverAccessor.getServerIntVersion() < 13 )
             Bukkit.getPluginManager().registerEvents( new OnChunkUnload(), this );
 
@@ -0,0 +1,90 @@
+package io.github.dailystruggle.rtp.bukkit.server;
+
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * scheduling on a server with one main thread, which is both the global thread and the owner of every chunk
+ */
+public final class BukkitRTPScheduler implements RTPScheduler {
+    private static final class BukkitTaskHandle implements Task {
+        private final BukkitTask task;
+
+        private BukkitTaskHandle( BukkitTask task ) {
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            task.cancel();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+    }
+
+    private final Plugin plugin;
+
+    public BukkitRTPScheduler( Plugin plugin ) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Task runGlobal( Runnable runnable, long delay ) {
+        return new BukkitTaskHandle( Bukkit.getScheduler().runTaskLater( plugin, runnable, Math.max( 0, delay ) ) );
+    }
+
+    @Override
+    public Task runGlobalTimer( Runnable runnable, long delay, long period ) {
+        return new BukkitTaskHandle( Bukkit.getScheduler().runTaskTimer( plugin, runnable, Math.max( 0, delay ), period ) );
+    }
+
+    @Override
+    public Task runAsync( Runnable runnable, long delay ) {
+        return new BukkitTaskHandle( Bukkit.getScheduler().runTaskLaterAsynchronously( plugin, runnable, Math.max( 0, delay ) ) );
+    }
+
+    @Override
+    public Task runAsyncTimer( Runnable runnable, long delay, long period ) {
+        return new BukkitTaskHandle( Bukkit.getScheduler().runTaskTimerAsynchronously( plugin, runnable, Math.max( 0, delay ), period ) );
+    }
+
+    @Override
+    public Task runAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable, long delay ) {
+        return runGlobal( runnable, delay );
+    }
+
+    @Override
+    public Task runFor( RTPPlayer player, Runnable runnable, Runnable retired, long delay ) {
+        return runGlobal( () -> {
+            if ( player.isOnline() ) runnable.run();
+            else retired.run();
+        }, delay );
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public boolean owns( RTPWorld world, int chunkX, int chunkZ ) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks( plugin );
+    }
+}
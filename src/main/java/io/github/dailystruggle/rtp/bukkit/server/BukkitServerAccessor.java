@@ -16,25 +16,26 @@ import io.github.dailystruggle.rtp.common.selection.region.selectors.memory.shap
 import io.github.dailystruggle.rtp.common.selection.region.selectors.memory.shapes.enums.GenericMemoryShapeParams;
 import io.github.dailystruggle.rtp.common.selection.region.selectors.shapes.Shape;
 import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
 import io.github.dailystruggle.rtp.common.serverSide.RTPServerAccessor;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
-import io.github.dailystruggle.rtp.common.tasks.TPS;
+import io.github.dailystruggle.rtp.common.tasks.TickGovernor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
@@ -47,6 +48,9 @@ public class BukkitServerAccessor implements RTPServerAccessor {
     private String version = null;
     private Integer intVersion = null;
     private Function<RTPWorld,Set<String>> biomes = BukkitRTPWorld::getBiomes;
+    private final RTPScheduler scheduler = FoliaRTPScheduler.isFolia()
+            ? new FoliaRTPScheduler( RTPBukkitPlugin.getInstance() )
+            : new BukkitRTPScheduler( RTPBukkitPlugin.getInstance() );
 
     private Function<String, WorldBorder> worldBorderFunction = s -> {
         RTPWorld rtpWorld = getRTPWorld( s );
@@ -229,7 +233,7 @@ public class BukkitServerAccessor implements RTPServerAccessor {
 
     @Override
     public long overTime() {
-        return 0;
+        return TickGovernor.get().overTime();
     }
 
     @Override
@@ -322,7 +326,12 @@ public class BukkitServerAccessor implements RTPServerAccessor {
 
     @Override
     public boolean isPrimaryThread() {
-        return Bukkit.isPrimaryThread();
+        return scheduler.isGlobalThread();
+    }
+
+    @Override
+    public RTPScheduler scheduler() {
+        return scheduler;
     }
 
     @Override
@@ -339,6 +348,7 @@ public class BukkitServerAccessor implements RTPServerAccessor {
                 border.isInside().apply( new RTPLocation( world, select[0], 92, select[1]) );
             }
             worldBorderFunction = function;
+            Region.invalidateShapes();
         } catch ( Error | Exception ignored ) {
             return false;
         }
@@ -374,25 +384,23 @@ public class BukkitServerAccessor implements RTPServerAccessor {
         RTPBukkitPlugin plugin = RTPBukkitPlugin.getInstance();
         RTP.getInstance().databaseAccessor.stop.set( false );
 
-        plugin.commandTimer = Bukkit.getScheduler().runTaskTimerAsynchronously( plugin, () -> {
-            long avgTime = TPS.timeSinceTick( 20 ) / 20;
-            long currTime = TPS.timeSinceTick( 1 );
-            CommandsAPI.execute( avgTime - currTime );
+        plugin.commandTimer = scheduler.runAsyncTimer( () -> {
+            CommandsAPI.execute( TimeUnit.NANOSECONDS.toMillis( TickGovernor.get().asyncBudget() ) );
         }, 40, 1 );
 
-        plugin.syncTimer = Bukkit.getScheduler().runTaskTimer( plugin, () -> {
+        plugin.syncTimer = scheduler.runGlobalTimer( () -> {
             new SyncTeleportProcessing().run();
         }, 20, 1 );
-        plugin.asyncTimer = Bukkit.getScheduler().runTaskTimer( plugin, () -> {
+        plugin.asyncTimer = scheduler.runGlobalTimer( () -> {
             new AsyncTeleportProcessing().run();
         }, 20, 1 );
-        plugin.fillTimer = Bukkit.getScheduler().runTaskTimer( plugin, () -> {
+        plugin.fillTimer = scheduler.runGlobalTimer( () -> {
             new FillTaskProcessing().run();
         }, 25, 20 );
-        plugin.databaseTimer = Bukkit.getScheduler().runTaskTimer( plugin, () -> {
+        plugin.databaseTimer = scheduler.runGlobalTimer( () -> {
             new DatabaseProcessing().run();
         }, 30, 20 );
 
-        BukkitTask task = Bukkit.getScheduler().runTask( plugin, this::getRTPWorlds );
+        scheduler.runGlobal( this::getRTPWorlds, 0 );
     }
 }
@@ -1,11 +1,9 @@
 package io.github.dailystruggle.rtp.bukkit.server;
 
-import io.github.dailystruggle.rtp.bukkit.RTPBukkitPlugin;
 import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
 import io.github.dailystruggle.rtp.common.tasks.FillTask;
-import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -13,10 +11,9 @@ import java.util.concurrent.atomic.AtomicReference;
 
 public class DatabaseProcessing extends BukkitRunnable {
     private static final AtomicBoolean killed = new AtomicBoolean( false );
-    private static final AtomicReference<BukkitTask> asyncTask = new AtomicReference<>( null );
+    private static final AtomicReference<CompletableFuture<Boolean>> asyncTask = new AtomicReference<>( null );
 
     public static void clear() {
-        if ( asyncTask.get() != null ) asyncTask.get().cancel();
         asyncTask.set( null );
     }
 
@@ -32,12 +29,15 @@ public class DatabaseProcessing extends BukkitRunnable {
         if ( asyncTask.get() != null ) return;
 
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        BukkitTask task = Bukkit.getScheduler().runTaskAsynchronously( RTPBukkitPlugin.getInstance(), () -> {
-            RTP.getInstance().databaseAccessor.processQueries( Long.MAX_VALUE );
+        asyncTask.set( future );
+        future.thenAccept( aBoolean -> asyncTask.compareAndSet( future, null ) );
+        BlockingStage.DATABASE.executor().execute( () -> {
+            try {
+                RTP.getInstance().databaseAccessor.processQueries( Long.MAX_VALUE );
+            } finally {
+                future.complete( true );
+            }
         } );
-        asyncTask.set( task );
-//        RTP.log( Level.SEVERE,"B - " + task.getTaskId() );
-        future.thenAccept( aBoolean -> asyncTask.set( null) );
     }
 
     @Override
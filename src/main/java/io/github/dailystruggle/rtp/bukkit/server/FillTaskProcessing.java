@@ -1,12 +1,12 @@
 package io.github.dailystruggle.rtp.bukkit.server;
 
-import io.github.dailystruggle.rtp.bukkit.RTPBukkitPlugin;
 import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
 import io.github.dailystruggle.rtp.common.tasks.FillTask;
-import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -14,10 +14,9 @@ import java.util.concurrent.atomic.AtomicReference;
 
 public class FillTaskProcessing extends BukkitRunnable {
     private static final AtomicBoolean killed = new AtomicBoolean( false );
-    private static final AtomicReference<BukkitTask> asyncTask = new AtomicReference<>( null );
+    private static final AtomicReference<CompletableFuture<Void>> asyncTask = new AtomicReference<>( null );
 
     public static void clear() {
-        if ( asyncTask.get() != null ) asyncTask.get().cancel();
         asyncTask.set( null );
     }
 
@@ -32,18 +31,18 @@ public class FillTaskProcessing extends BukkitRunnable {
         if ( killed.get() ) return;
         if ( asyncTask.get() != null ) return;
 
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        RTP.futures.add( future );
-        BukkitTask task = Bukkit.getScheduler().runTaskAsynchronously( RTPBukkitPlugin.getInstance(), () -> {
-            for ( Map.Entry<String, FillTask> e : RTP.getInstance().fillTasks.entrySet() ) {
-                if ( e.getValue().isRunning() ) continue;
-                e.getValue().run();
-            }
-            future.complete( true );
-        } );
-        asyncTask.set( task );
-//        RTP.log( Level.SEVERE,"A - " + task.getTaskId() );
-        future.thenAccept( aBoolean -> asyncTask.set( null) );
+        //each fill task on its own thread, up to the fill stage's limit
+        List<CompletableFuture<Void>> fills = new ArrayList<>();
+        for ( Map.Entry<String, FillTask> e : RTP.getInstance().fillTasks.entrySet() ) {
+            if ( e.getValue().isRunning() ) continue;
+            fills.add( CompletableFuture.runAsync( e.getValue(), BlockingStage.FILL.executor() ) );
+        }
+        if ( fills.isEmpty() ) return;
+
+        CompletableFuture<Void> future = CompletableFuture.allOf( fills.toArray( new CompletableFuture[0] ) );
+        RTP.futures.register( FillTaskProcessing.class, future );
+        asyncTask.set( future );
+        future.whenComplete( ( unused, throwable ) -> asyncTask.compareAndSet( future, null ) );
     }
 
     @Override
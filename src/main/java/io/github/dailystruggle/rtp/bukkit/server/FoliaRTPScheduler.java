@@ -0,0 +1,265 @@
+package io.github.dailystruggle.rtp.bukkit.server;
+
+import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPPlayer;
+import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPWorld;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * scheduling on folia's regionized server - global work on the global region, chunk work on the region owning the
+ * chunk, and async work on folia's async scheduler
+ * <br>reached by reflection, since folia's scheduler api is newer than the api this compiles against
+ */
+public final class FoliaRTPScheduler implements RTPScheduler {
+    private static final String regionizedServer = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    /**
+     * @return whether this server is folia, or a fork of it
+     */
+    public static boolean isFolia() {
+        try {
+            Class.forName( regionizedServer );
+            return true;
+        } catch ( ClassNotFoundException ignored ) {
+            return false;
+        }
+    }
+
+    /**
+     * one run or timer, cancelled here first so a run that's already queued is skipped
+     */
+    private final class FoliaTask implements Task {
+        private final AtomicBoolean cancelled = new AtomicBoolean( false );
+        private final AtomicReference<Object> scheduled = new AtomicReference<>();
+        private final Runnable runnable;
+
+        private FoliaTask( Runnable runnable ) {
+            this.runnable = runnable;
+        }
+
+        private void run( Object scheduledTask ) {
+            scheduled.compareAndSet( null, scheduledTask );
+            if ( cancelled.get() ) {
+                cancelScheduled();
+                return;
+            }
+            runnable.run();
+        }
+
+        private FoliaTask scheduled( Object scheduledTask ) {
+            if ( scheduledTask != null ) scheduled.set( scheduledTask );
+            if ( cancelled.get() ) cancelScheduled();
+            return this;
+        }
+
+        private void cancelScheduled() {
+            Object task = scheduled.get();
+            if ( task != null ) invoke( taskCancel, task );
+        }
+
+        @Override
+        public void cancel() {
+            if ( cancelled.compareAndSet( false, true ) ) cancelScheduled();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    private final Plugin plugin;
+    private final Object globalScheduler;
+    private final Object regionScheduler;
+    private final Object asyncScheduler;
+    private final Method globalExecute;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method globalCancelTasks;
+    private final Method regionExecute;
+    private final Method regionRunDelayed;
+    private final Method asyncRunNow;
+    private final Method asyncRunDelayed;
+    private final Method asyncRunAtFixedRate;
+    private final Method asyncCancelTasks;
+    private final Method getEntityScheduler;
+    private final Method entityRun;
+    private final Method entityRunDelayed;
+    private final Method taskCancel;
+    private final Method isOwnedByCurrentRegion;
+    private final Method isGlobalTickThread;
+
+    public FoliaRTPScheduler( Plugin plugin ) {
+        this.plugin = plugin;
+        try {
+            Method getGlobal = Bukkit.class.getMethod( "getGlobalRegionScheduler" );
+            Method getRegion = Bukkit.class.getMethod( "getRegionScheduler" );
+            Method getAsync = Bukkit.class.getMethod( "getAsyncScheduler" );
+            globalScheduler = getGlobal.invoke( null );
+            regionScheduler = getRegion.invoke( null );
+            asyncScheduler = getAsync.invoke( null );
+
+            //methods come from the api interfaces, since the implementations may not be accessible
+            Class<?> global = getGlobal.getReturnType();
+            globalExecute = global.getMethod( "execute", Plugin.class, Runnable.class );
+            globalRunDelayed = global.getMethod( "runDelayed", Plugin.class, Consumer.class, long.class );
+            globalRunAtFixedRate = global.getMethod( "runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class );
+            globalCancelTasks = global.getMethod( "cancelTasks", Plugin.class );
+
+            Class<?> region = getRegion.getReturnType();
+            regionExecute = region.getMethod( "execute", Plugin.class, World.class, int.class, int.class, Runnable.class );
+            regionRunDelayed = region.getMethod( "runDelayed", Plugin.class, World.class, int.class, int.class, Consumer.class, long.class );
+
+            Class<?> async = getAsync.getReturnType();
+            asyncRunNow = async.getMethod( "runNow", Plugin.class, Consumer.class );
+            asyncRunDelayed = async.getMethod( "runDelayed", Plugin.class, Consumer.class, long.class, TimeUnit.class );
+            asyncRunAtFixedRate = async.getMethod( "runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class );
+            asyncCancelTasks = async.getMethod( "cancelTasks", Plugin.class );
+
+            getEntityScheduler = Entity.class.getMethod( "getScheduler" );
+            Class<?> entity = getEntityScheduler.getReturnType();
+            entityRun = entity.getMethod( "run", Plugin.class, Consumer.class, Runnable.class );
+            entityRunDelayed = entity.getMethod( "runDelayed", Plugin.class, Consumer.class, Runnable.class, long.class );
+
+            taskCancel = asyncRunNow.getReturnType().getMethod( "cancel" );
+            isOwnedByCurrentRegion = Bukkit.class.getMethod( "isOwnedByCurrentRegion", World.class, int.class, int.class );
+            isGlobalTickThread = Bukkit.class.getMethod( "isGlobalTickThread" );
+        } catch ( ReflectiveOperationException exception ) {
+            throw new IllegalStateException( "folia scheduler api not found", exception );
+        }
+    }
+
+    private static Object invoke( Method method, Object target, Object... args ) {
+        try {
+            return method.invoke( target, args );
+        } catch ( IllegalAccessException exception ) {
+            throw new IllegalStateException( exception );
+        } catch ( InvocationTargetException exception ) {
+            Throwable cause = exception.getCause();
+            if ( cause instanceof RuntimeException ) throw ( RuntimeException ) cause;
+            if ( cause instanceof Error ) throw ( Error ) cause;
+            throw new IllegalStateException( cause );
+        }
+    }
+
+    private static World world( RTPWorld world ) {
+        if ( world instanceof BukkitRTPWorld ) return ( (BukkitRTPWorld ) world ).world();
+        World res = Bukkit.getWorld( world.id() );
+        if ( res == null ) throw new IllegalStateException( "world not found - " + world.name() );
+        return res;
+    }
+
+    @Override
+    public Task runGlobal( Runnable runnable, long delay ) {
+        FoliaTask task = new FoliaTask( runnable );
+        Consumer<Object> consumer = task::run;
+        //folia's delayed runs take at least a tick
+        if ( delay < 1 ) {
+            invoke( globalExecute, globalScheduler, plugin, ( Runnable ) () -> task.run( null ) );
+            return task;
+        }
+        return task.scheduled( invoke( globalRunDelayed, globalScheduler, plugin, consumer, delay ) );
+    }
+
+    @Override
+    public Task runGlobalTimer( Runnable runnable, long delay, long period ) {
+        FoliaTask task = new FoliaTask( runnable );
+        Consumer<Object> consumer = task::run;
+        return task.scheduled( invoke( globalRunAtFixedRate, globalScheduler, plugin, consumer, Math.max( 1, delay ), Math.max( 1, period ) ) );
+    }
+
+    @Override
+    public Task runAsync( Runnable runnable, long delay ) {
+        FoliaTask task = new FoliaTask( runnable );
+        Consumer<Object> consumer = task::run;
+        if ( delay < 1 ) return task.scheduled( invoke( asyncRunNow, asyncScheduler, plugin, consumer ) );
+        return task.scheduled( invoke( asyncRunDelayed, asyncScheduler, plugin, consumer, delay * 50, TimeUnit.MILLISECONDS ) );
+    }
+
+    @Override
+    public Task runAsyncTimer( Runnable runnable, long delay, long period ) {
+        FoliaTask task = new FoliaTask( runnable );
+        Consumer<Object> consumer = task::run;
+        return task.scheduled( invoke( asyncRunAtFixedRate, asyncScheduler, plugin, consumer,
+                Math.max( 1, delay ) * 50, Math.max( 1, period ) * 50, TimeUnit.MILLISECONDS ) );
+    }
+
+    @Override
+    public Task runAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable, long delay ) {
+        FoliaTask task = new FoliaTask( runnable );
+        World bukkitWorld = world( world );
+        if ( delay < 1 ) {
+            invoke( regionExecute, regionScheduler, plugin, bukkitWorld, chunkX, chunkZ, ( Runnable ) () -> task.run( null ) );
+            return task;
+        }
+        Consumer<Object> consumer = task::run;
+        return task.scheduled( invoke( regionRunDelayed, regionScheduler, plugin, bukkitWorld, chunkX, chunkZ, consumer, delay ) );
+    }
+
+    @Override
+    public Task runFor( RTPPlayer player, Runnable runnable, Runnable retired, long delay ) {
+        FoliaTask task = new FoliaTask( runnable );
+        Player bukkitPlayer = ( player instanceof BukkitRTPPlayer )
+                ? ( (BukkitRTPPlayer ) player ).player()
+                : Bukkit.getPlayer( player.uuid() );
+        if ( bukkitPlayer == null ) {
+            task.cancel();
+            retired.run();
+            return task;
+        }
+        Object entityScheduler = invoke( getEntityScheduler, bukkitPlayer );
+        Consumer<Object> consumer = task::run;
+        Runnable onRetired = () -> {
+            if ( !task.isCancelled() ) retired.run();
+        };
+        //null when the player is already gone
+        Object scheduled = ( delay < 1 )
+                ? invoke( entityRun, entityScheduler, plugin, consumer, onRetired )
+                : invoke( entityRunDelayed, entityScheduler, plugin, consumer, onRetired, delay );
+        if ( scheduled == null ) {
+            task.cancel();
+            retired.run();
+        }
+        return task.scheduled( scheduled );
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return ( Boolean ) invoke( isGlobalTickThread, null );
+    }
+
+    @Override
+    public boolean owns( RTPWorld world, int chunkX, int chunkZ ) {
+        return ( Boolean ) invoke( isOwnedByCurrentRegion, null, world( world ), chunkX, chunkZ );
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public void cancelAll() {
+        try {
+            invoke( globalCancelTasks, globalScheduler, plugin );
+            invoke( asyncCancelTasks, asyncScheduler, plugin );
+        } catch ( RuntimeException exception ) {
+            RTP.log( Level.WARNING, "[RTP] failed to cancel scheduled tasks", exception );
+        }
+    }
+}
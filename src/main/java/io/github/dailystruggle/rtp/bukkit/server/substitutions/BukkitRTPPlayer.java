@@ -2,6 +2,7 @@ package io.github.dailystruggle.rtp.bukkit.server.substitutions;
 
 import io.github.dailystruggle.rtp.bukkit.tools.SendMessage;
 import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
@@ -68,8 +69,10 @@ public final class BukkitRTPPlayer implements RTPPlayer {
         OfflinePlayer player;
         if( rtpPlayer==null ) player = player();
         else player = ( (BukkitRTPPlayer ) rtpPlayer ).player();
-        command = SendMessage.formatNoColor( player,command );
-        player().performCommand( command );
+        String formatted = SendMessage.formatNoColor( player,command );
+        RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+        if ( scheduler.isRegionized() ) scheduler.runFor( this, () -> player().performCommand( formatted ), () -> { }, 0 );
+        else player().performCommand( formatted );
     }
 
     @Override
@@ -90,7 +93,17 @@ public final class BukkitRTPPlayer implements RTPPlayer {
         double y = to.y();
         double z = to.z() + 0.5;
 
-        return PaperLib.teleportAsync(player,new Location(world, x, y, z));
+        Location location = new Location( world, x, y, z );
+        RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+        if ( !scheduler.isRegionized() ) return PaperLib.teleportAsync( player, location );
+
+        //a regionized server only takes teleports from the thread that owns the player
+        CompletableFuture<Boolean> res = new CompletableFuture<>();
+        scheduler.runFor( this, () -> PaperLib.teleportAsync( player, location ).whenComplete( ( teleported, throwable ) -> {
+            if ( throwable != null ) res.completeExceptionally( throwable );
+            else res.complete( teleported );
+        } ), () -> res.complete( false ), 0 );
+        return res;
     }
 
     @Override
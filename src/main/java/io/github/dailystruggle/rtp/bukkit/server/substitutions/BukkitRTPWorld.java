@@ -3,11 +3,16 @@ package io.github.dailystruggle.rtp.bukkit.server.substitutions;
 import io.github.dailystruggle.rtp.bukkit.RTPBukkitPlugin;
 import io.github.dailystruggle.rtp.common.RTP;
 import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
 import io.github.dailystruggle.rtp.common.configuration.enums.SafetyKeys;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.ChunkPriority;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tools.BiomeCache;
+import io.github.dailystruggle.rtp.common.tools.SyncChunkLoads;
 import io.papermc.lib.PaperLib;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
@@ -15,10 +20,11 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Waterlogged;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -49,14 +55,16 @@ public final class BukkitRTPWorld implements RTPWorld {
             if ( RTP.serverAccessor.getServerIntVersion() < 13 || chunkBiomes.get() ) {
                 Region.maxBiomeChecksPerGen = 2;
 
+                //a sync lookup can't wait on the main thread - use getBiomeAsync there instead
                 Future<Chunk> future;
-                if ( RTP.serverAccessor.getServerIntVersion() >= 13 ) {
+                RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+                RTPWorld rtpWorld = RTP.serverAccessor.getRTPWorld( world.getUID() );
+                if ( scheduler.owns( rtpWorld, chunkX, chunkZ ) ) {
+                    future = CompletableFuture.completedFuture( syncLoad( world, chunkX, chunkZ ) );
+                } else if ( RTP.serverAccessor.getServerIntVersion() >= 13 ) {
                     future = PaperLib.getChunkAtAsyncUrgently( world, chunkX, chunkZ, true );
                 } else {
-                    if ( Bukkit.isPrimaryThread() )
-                        future = CompletableFuture.completedFuture( world.getChunkAt( chunkX, chunkZ) );
-                    else
-                        future = Bukkit.getScheduler().callSyncMethod( RTPBukkitPlugin.getInstance(), () -> world.getChunkAt( chunkX, chunkZ) );
+                    future = scheduler.supplyAt( rtpWorld, chunkX, chunkZ, () -> world.getChunkAt( chunkX, chunkZ) );
                 }
 
                 try {
@@ -95,11 +103,35 @@ public final class BukkitRTPWorld implements RTPWorld {
             return Biome.PLAINS.name();
         }
     };
+    //generator lookups by reflection, since they're newer than the api this compiles against
+    private static final Method getBiomeProvider = findMethod( World.class, "getBiomeProvider" );
+    private static final Method providerGetBiome = findProviderGetBiome();
+    private static final Method getComputedBiome = findMethod( World.class, "getComputedBiome", int.class, int.class, int.class );
+    private static final AtomicBoolean predictException = new AtomicBoolean( false );
+    private static Function<Location, String> predictBiome = location -> {
+        //a mismatch between generator and chunk biomes means predictions can't be trusted
+        if ( biomeException.get() || chunkBiomes.get() ) return null;
+        return generatorBiome( location );
+    };
+    /**
+     * non-blocking replacement getter, or null to load the chunk and then use the blocking getter
+     */
+    private static Function<Location, CompletableFuture<String>> getBiomeAsync = null;
     private static @NotNull Function<RTPWorld, Set<String>> getBiomes
             = ( rtpWorld ) -> Arrays.stream( Biome.values() ).map( biome -> biome.name().toUpperCase() ).collect( Collectors.toSet() );
 
-    public final Map<List<Integer>, Map.Entry<Chunk, Long>> chunkMap = new ConcurrentHashMap<>();
-    public final Map<List<Integer>, List<CompletableFuture<Chunk>>> chunkLoads = new ConcurrentHashMap<>();
+    /**
+     * chunks held for cached or pending teleports
+     */
+    public final KeptChunks keptChunks;
+    /**
+     * async chunk loads queued or in flight, shared between concurrent requests for the same chunk
+     */
+    public final ChunkLoads chunkLoads = new ChunkLoads( this::loadAsync );
+    /**
+     * recent getBiome results, consulted before any lookup that might load a chunk
+     */
+    public final BiomeCache biomeCache;
     private final UUID id;
     private final String name;
     private final World world;
@@ -114,10 +146,80 @@ public final class BukkitRTPWorld implements RTPWorld {
             this.id = world.getUID();
             this.name = world.getName();
         }
+        this.keptChunks = new KeptChunks( this );
+
+        int biomeCacheSize = 4096;
+        if ( RTP.configs != null ) {
+            ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+            if ( performance != null ) biomeCacheSize = performance.getNumber( PerformanceKeys.biomeCacheSize, 4096 ).intValue();
+        }
+        this.biomeCache = new BiomeCache( biomeCacheSize );
     }
 
     public static void setBiomeGetter( @NotNull Function<Location, String> getBiome ) {
         BukkitRTPWorld.getBiome = getBiome;
+        //the generator no longer speaks for this getter, unless a predictor is set to match
+        BukkitRTPWorld.predictBiome = location -> null;
+        //likewise any earlier async getter, unless set again after this
+        BukkitRTPWorld.getBiomeAsync = null;
+    }
+
+    /**
+     * @param getBiomeAsync biome lookup that completes once its chunk is available, without blocking a thread on it
+     */
+    public static void setBiomeGetterAsync( @NotNull Function<Location, CompletableFuture<String>> getBiomeAsync ) {
+        BukkitRTPWorld.getBiomeAsync = getBiomeAsync;
+    }
+
+    /**
+     * @param predictBiome biome lookup that must not load chunks, returning null when it can't tell
+     */
+    public static void setBiomePredictor( @NotNull Function<Location, String> predictBiome ) {
+        BukkitRTPWorld.predictBiome = predictBiome;
+    }
+
+    /**
+     * @return the biome the world's generator puts here, without loading the chunk - null where the server can't say
+     * <br>only a guess for worlds whose chunks don't match their generator
+     */
+    @Nullable
+    public static String generatorBiome( @NotNull Location location ) {
+        if ( predictException.get() ) return null;
+        try {
+            World world = Objects.requireNonNull( location.getWorld() );
+            int x = location.getBlockX();
+            int y = location.getBlockY();
+            int z = location.getBlockZ();
+
+            if ( getBiomeProvider != null && providerGetBiome != null ) {
+                Object provider = getBiomeProvider.invoke( world );
+                if ( provider != null ) return ( (Biome ) providerGetBiome.invoke( provider, world, x, y, z ) ).name();
+            }
+            if ( getComputedBiome != null ) return ( (Biome ) getComputedBiome.invoke( world, x, y, z ) ).name();
+        } catch ( Throwable throwable ) {
+            RTP.log( Level.WARNING, "[RTP] biome prediction has thrown. Falling back to chunk lookups until shutdown" );
+            RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+            predictException.set( true );
+        }
+        return null;
+    }
+
+    private static Method findMethod( Class<?> clazz, String name, Class<?>... params ) {
+        try {
+            return clazz.getMethod( name, params );
+        } catch ( NoSuchMethodException | SecurityException ignored ) {
+            return null;
+        }
+    }
+
+    private static Method findProviderGetBiome() {
+        try {
+            Class<?> worldInfo = Class.forName( "org.bukkit.generator.WorldInfo" );
+            Class<?> provider = Class.forName( "org.bukkit.generator.BiomeProvider" );
+            return provider.getMethod( "getBiome", worldInfo, int.class, int.class, int.class );
+        } catch ( ClassNotFoundException | NoSuchMethodException | SecurityException ignored ) {
+            return null;
+        }
     }
 
     public static void setBiomesGetter( @NotNull Function<RTPWorld,Set<String>> getBiomes ) {
@@ -140,52 +242,46 @@ public final class BukkitRTPWorld implements RTPWorld {
 
     @Override
     public CompletableFuture<RTPChunk> getChunkAt( int cx, int cz ) {
-        List<Integer> xz = Arrays.asList( cx, cz );
+        return getChunkAt( cx, cz, ChunkPriority.INTERACTIVE );
+    }
+
+    @Override
+    public CompletableFuture<RTPChunk> getChunkAt( int cx, int cz, ChunkPriority priority ) {
+        if ( RTP.getInstance() != null ) RTP.getInstance().chunkReleases.requested( this, cx, cz );
         CompletableFuture<RTPChunk> res = new CompletableFuture<>();
-        Map.Entry<Chunk, Long> chunkLongPair = chunkMap.get( xz );
-        if ( chunkLongPair != null && chunkLongPair.getKey() != null ) {
-            Chunk chunk = chunkLongPair.getKey();
-            if( chunk == null ) return null;
-            else res.complete( new BukkitRTPChunk( chunk) );
+        Chunk kept = keptChunks.get( cx, cz );
+        if ( kept != null ) {
+            res.complete( new BukkitRTPChunk( kept ) );
             return res;
         }
 
-        if ( Bukkit.isPrimaryThread() || world.isChunkLoaded( cx, cz) ) {
+        //never load in place, even on the main thread - unloaded chunks always complete later
+        //a regionized server only lets the owning thread touch a chunk, so anywhere else even loaded chunks go through the async load
+        RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+        if ( world.isChunkLoaded( cx, cz) && ( !scheduler.isRegionized() || scheduler.owns( this, cx, cz ) ) ) {
             Chunk chunk = world.getChunkAt( cx, cz );
             if( chunk == null ) res.complete( null );
             else res.complete( new BukkitRTPChunk( chunk) );
         } else if ( RTP.serverAccessor.getServerIntVersion() < 13 ) {
-            Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> {
-                Chunk chunkAt = world.getChunkAt( cx, cz );
-                if( chunkAt == null ) res.complete( null );
-                else res.complete( new BukkitRTPChunk( chunkAt) );
-            } );
-        } else {
-            CompletableFuture<Chunk> chunkAtAsync;
-            try {
-                chunkAtAsync = PaperLib.getChunkAtAsyncUrgently( world, cx, cz, true );
-            } catch ( IllegalStateException exception ) {
-                chunkAtAsync = new CompletableFuture<>();
-                Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(),() -> {
-                    Chunk chunkAt = world.getChunkAt( cx, cz );
+            scheduler.runAt( this, cx, cz, () -> {
+                try {
+                    Chunk chunkAt = syncLoad( world, cx, cz );
                     if( chunkAt == null ) res.complete( null );
                     else res.complete( new BukkitRTPChunk( chunkAt) );
-                } );
-            }
-            RTP.futures.add( chunkAtAsync );
-
-            List<CompletableFuture<Chunk>> list = chunkLoads.get( xz );
-            if ( list == null ) list = new ArrayList<>();
-            list.add( chunkAtAsync );
-            chunkLoads.put( xz, list );
-
-            chunkAtAsync.thenAccept( chunk -> {
+                } catch ( Throwable throwable ) {
+                    res.completeExceptionally( throwable );
+                }
+            }, 0 );
+        } else {
+            CompletableFuture<Chunk> chunkAtAsync = chunkLoads.load( cx, cz, priority );
+            //a failed load fails the caller too, rather than leaving it and its load permit waiting forever
+            chunkAtAsync.whenComplete( ( chunk, throwable ) -> {
+                if ( throwable != null ) {
+                    res.completeExceptionally( throwable );
+                    return;
+                }
                 if( chunk == null ) res.complete( null );
                 else res.complete( new BukkitRTPChunk( chunk) );
-                chunkLoads.remove( xz );
-                RTP.futures.forEach(completableFuture -> {
-                    if(completableFuture.isDone()) RTP.futures.remove(completableFuture);
-                });
                 if ( !RTPBukkitPlugin.getInstance().isEnabled() )
                     throw new IllegalStateException( "completed chunk after plugin disabled" );
             } );
@@ -193,74 +289,127 @@ public final class BukkitRTPWorld implements RTPWorld {
         return res;
     }
 
+    private CompletableFuture<Chunk> loadAsync( int cx, int cz, boolean urgent ) {
+        CompletableFuture<Chunk> chunkAtAsync;
+        try {
+            chunkAtAsync = urgent
+                    ? PaperLib.getChunkAtAsyncUrgently( world, cx, cz, true )
+                    : PaperLib.getChunkAtAsync( world, cx, cz, true );
+        } catch ( IllegalStateException exception ) {
+            CompletableFuture<Chunk> fallback = new CompletableFuture<>();
+            RTP.serverAccessor.scheduler().runAt( this, cx, cz, () -> fallback.complete( syncLoad( world, cx, cz ) ), 0 );
+            chunkAtAsync = fallback;
+        }
+        RTP.futures.register( this, chunkAtAsync );
+        return chunkAtAsync;
+    }
+
     @Override
     public void keepChunkAt( int cx, int cz ) {
-        List<Integer> xz = Arrays.asList( cx, cz );
-        if ( chunkMap.containsKey( xz) ) {
-            Map.Entry<Chunk, Long> chunkLongPair = chunkMap.get( xz );
-            if ( Bukkit.isPrimaryThread() ) setChunkForceLoaded( cx, cz, true );
-            else Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> setChunkForceLoaded( cx, cz, true) );
-            chunkLongPair.setValue( chunkLongPair.getValue() + 1 );
-            chunkMap.put( xz, chunkLongPair );
-        } else {
-            CompletableFuture<RTPChunk> chunkAt = getChunkAt( cx, cz );
-            chunkAt.thenAccept( rtpChunk -> {
-                if ( chunkMap.containsKey( xz) ) {
-                    Map.Entry<Chunk, Long> chunkLongPair = chunkMap.get( xz );
-                    if ( Bukkit.isPrimaryThread() ) setChunkForceLoaded( cx, cz, true );
-                    else Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> setChunkForceLoaded( cx, cz, true) );
-                    chunkLongPair.setValue( chunkLongPair.getValue() + 1 );
-                    chunkMap.put( xz, chunkLongPair );
-                } else if ( rtpChunk instanceof BukkitRTPChunk ) {
-                    BukkitRTPChunk bukkitRTPChunk = ( (BukkitRTPChunk ) rtpChunk );
-                    Map.Entry<Chunk, Long> pair = new AbstractMap.SimpleEntry<>( bukkitRTPChunk.chunk(), 1L );
-                    if ( Bukkit.isPrimaryThread() ) setChunkForceLoaded( cx, cz, true );
-                    else Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> setChunkForceLoaded( cx, cz, true) );
-                    chunkMap.put( xz, pair );
-                } else throw new IllegalStateException();
-            } );
-        }
+        //taking back a pending release leaves the reference count where it was
+        if ( RTP.getInstance() != null && RTP.getInstance().chunkReleases.kept( this, cx, cz ) ) return;
+        if ( keptChunks.retain( cx, cz ) ) return;
+        getChunkAt( cx, cz ).thenAccept( rtpChunk -> {
+            if ( rtpChunk instanceof BukkitRTPChunk ) keptChunks.retain( cx, cz, ( (BukkitRTPChunk ) rtpChunk ).chunk() );
+            else throw new IllegalStateException();
+        } );
     }
 
     @Override
     public void forgetChunkAt( int cx, int cz ) {
-        List<Integer> xz = Arrays.asList( cx, cz );
-        Map.Entry<Chunk, Long> chunkLongPair = chunkMap.get( xz );
-        if ( chunkLongPair == null ) return;
-
-        long i = chunkLongPair.getValue() - 1;
-        if ( i <= 0 ) {
-            chunkMap.remove( xz );
-            if ( Bukkit.isPrimaryThread() ) setChunkForceLoaded( cx, cz, false );
-            else Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> setChunkForceLoaded( cx, cz, false) );
-        } else chunkLongPair.setValue( i );
+        keptChunks.release( cx, cz );
     }
 
     @Override
     public void forgetChunks() {
-        chunkMap.forEach( (integers, chunkLongPair ) -> setChunkForceLoaded( integers.get( 0 ), integers.get( 1 ), false) );
-        chunkMap.clear();
+        keptChunks.releaseAll();
     }
 
     @Override
     public String getBiome( int x, int y, int z ) {
-        return getBiome.apply( new Location( world, x, y, z) ).toUpperCase();
+        String biome = biomeCache.get( x, y, z );
+        if ( biome != null ) return biome;
+        return lookupBiome( x, y, z );
     }
 
     @Override
-    public void platform( RTPLocation rtpLocation ) {
-        int version = RTP.serverAccessor.getServerIntVersion();
+    public CompletableFuture<String> getBiomeAsync( int x, int y, int z, ChunkPriority priority ) {
+        String biome = biomeCache.get( x, y, z );
+        if ( biome != null ) return CompletableFuture.completedFuture( biome );
+
+        Function<Location, CompletableFuture<String>> getter = getBiomeAsync;
+        if ( getter == null ) {
+            //once the chunk is in, the blocking getter has nothing left to wait on
+            return getChunkAt( x >> 4, z >> 4, priority ).thenApply( chunk -> lookupBiome( x, y, z ) );
+        }
+        return getter.apply( new Location( world, x, y, z ) ).thenApply( res -> {
+            String upper = res.toUpperCase();
+            biomeCache.put( x, y, z, upper );
+            return upper;
+        } );
+    }
+
+    private String lookupBiome( int x, int y, int z ) {
+        String biome = getBiome.apply( new Location( world, x, y, z) ).toUpperCase();
+        biomeCache.put( x, y, z, biome );
+        return biome;
+    }
 
+    @Override
+    public String predictBiome( int x, int y, int z ) {
+        String biome = predictBiome.apply( new Location( world, x, y, z ) );
+        return ( biome == null ) ? null : biome.toUpperCase();
+    }
+
+    @Override
+    public CompletableFuture<Void> platform( RTPLocation rtpLocation ) {
+        CompletableFuture<Void> res = new CompletableFuture<>();
+        platform( rtpLocation, true, res );
+        return res;
+    }
+
+    /**
+     * @param await whether to wait on missing chunks - false once they've been waited on, so a failed load can't loop
+     * @param res   completed once the platform is built or skipped
+     */
+    private void platform( RTPLocation rtpLocation, boolean await, CompletableFuture<Void> res ) {
         World world = Bukkit.getWorld( rtpLocation.world().name() );
-        if( world == null ) return;
+        if( world == null ) {
+            res.complete( null );
+            return;
+        }
 
-        if( !world.isChunkLoaded( rtpLocation.x()/16,rtpLocation.z()/16) ) {
-            if( !Bukkit.isPrimaryThread() ) {
-                Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(),() -> platform( rtpLocation) );
+        //blocks are placed from the thread that owns them
+        RTPScheduler scheduler = RTP.serverAccessor.scheduler();
+        RTPWorld owner = rtpLocation.world();
+        int ownerX = rtpLocation.x() >> 4;
+        int ownerZ = rtpLocation.z() >> 4;
+        if( !scheduler.owns( owner, ownerX, ownerZ ) ) {
+            scheduler.runAt( owner, ownerX, ownerZ, () -> platform( rtpLocation, await, res ), 0 );
+            return;
+        }
+
+        //load anything missing first, then come back on the owning thread
+        if ( await ) {
+            List<CompletableFuture<RTPChunk>> loads = missingPlatformChunks( world, rtpLocation );
+            if ( !loads.isEmpty() ) {
+                CompletableFuture.allOf( loads.toArray( new CompletableFuture[0] ) ).whenComplete( ( unused, throwable ) ->
+                        scheduler.runAt( owner, ownerX, ownerZ, () -> platform( rtpLocation, false, res ), 0 ) );
                 return;
             }
         }
 
+        try {
+            buildPlatform( world, rtpLocation );
+            res.complete( null );
+        } catch ( Throwable throwable ) {
+            res.completeExceptionally( throwable );
+        }
+    }
+
+    private void buildPlatform( World world, RTPLocation rtpLocation ) {
+        int version = RTP.serverAccessor.getServerIntVersion();
+
 
         Location location = new Location( 
                 world,
@@ -268,19 +417,15 @@ public final class BukkitRTPWorld implements RTPWorld {
                 rtpLocation.y(),
                 rtpLocation.z() );
 
-        int cx = rtpLocation.x();
-        int cz = rtpLocation.z();
+        int cx = rtpLocation.x() >> 4;
+        int cz = rtpLocation.z() >> 4;
 
-        cx = ( cx > 0 ) ? cx / 16 : cx / 16 - 1;
-        cz = ( cz > 0 ) ? cz / 16 : cz / 16 - 1;
-
-        List<Integer> xz = Arrays.asList( cx, cz );
-        Map.Entry<Chunk, Long> chunkLongPair = chunkMap.get( xz );
-        if ( chunkLongPair == null ) throw new IllegalStateException();
-
-        Chunk chunk = chunkLongPair.getKey();
-        if ( chunk == null ) chunk = location.getChunk();
-        if ( !chunk.isLoaded() ) chunk.load();
+        //the chunk may have been let go of while the platform waited its turn - it's loaded again by now, or loads here
+        Chunk chunk = keptChunks.contains( cx, cz ) ? keptChunks.get( cx, cz ) : null;
+        if ( chunk == null || !chunk.isLoaded() ) {
+            chunk = world.isChunkLoaded( cx, cz ) ? world.getChunkAt( cx, cz ) : syncLoad( world, cx, cz );
+        }
+        if ( chunk == null ) return;
 
         Block airBlock = location.getBlock();
         Material air = ( airBlock.isLiquid() || airBlock.getType().isSolid() ) ? Material.AIR : airBlock.getType();
@@ -310,7 +455,7 @@ public final class BukkitRTPWorld implements RTPWorld {
         int x = location.getBlockX()%16;
         if( x<0 ) x+=16;
 
-        int z = location.getBlockX()%16;
+        int z = location.getBlockZ()%16;
         if( z<0 ) z+=16;
 
         if ( !solid.isSolid() ) solid = platformMaterial;
@@ -343,11 +488,7 @@ public final class BukkitRTPWorld implements RTPWorld {
                     jj-=16*dz;
                 }
 
-                try {
-                    chunk1 = ( (BukkitRTPChunk )getChunkAt( chunkX,chunkZ ).get() ).chunk();
-                } catch ( InterruptedException | ExecutionException e ) {
-                    return;
-                }
+                chunk1 = world.isChunkLoaded( chunkX, chunkZ ) ? world.getChunkAt( chunkX, chunkZ ) : syncLoad( world, chunkX, chunkZ );
 
                 for ( int y = location.getBlockY() - 1; y >= location.getBlockY() - platformDepth; y-- ) {
                     if( y>getMaxHeight() || y<getMinHeight() ) continue;
@@ -376,6 +517,32 @@ public final class BukkitRTPWorld implements RTPWorld {
         }
     }
 
+    /**
+     * @return loads for any chunk a platform at this location would touch that isn't loaded yet
+     */
+    private List<CompletableFuture<RTPChunk>> missingPlatformChunks( World world, RTPLocation location ) {
+        ConfigParser<SafetyKeys> safety = ( ConfigParser<SafetyKeys> ) RTP.configs.getParser( SafetyKeys.class );
+        int radius = safety.getNumber( SafetyKeys.platformRadius, 0 ).intValue();
+        List<CompletableFuture<RTPChunk>> res = new ArrayList<>();
+        for ( int cx = ( location.x() - radius ) >> 4; cx <= ( location.x() + radius ) >> 4; cx++ ) {
+            for ( int cz = ( location.z() - radius ) >> 4; cz <= ( location.z() + radius ) >> 4; cz++ ) {
+                if ( !world.isChunkLoaded( cx, cz ) ) res.add( getChunkAt( cx, cz, ChunkPriority.INTERACTIVE ) );
+            }
+        }
+        return res;
+    }
+
+    /**
+     * load a chunk in place, for the few paths with no way to wait on it
+     * <br>on the main thread this stalls the server, so each such load is recorded in {@link SyncChunkLoads}
+     */
+    private static Chunk syncLoad( World world, int cx, int cz ) {
+        if ( Bukkit.isPrimaryThread() && !world.isChunkLoaded( cx, cz ) ) {
+            SyncChunkLoads.record( "world:" + world.getName() + " chunk:" + cx + "," + cz );
+        }
+        return world.getChunkAt( cx, cz );
+    }
+
     @Override
     public boolean isInactive() {
         return Bukkit.getWorld( id ) == null;
@@ -383,7 +550,7 @@ public final class BukkitRTPWorld implements RTPWorld {
 
     @Override
     public boolean isForceLoaded( int cx, int cz ) {
-        return chunkMap.containsKey( Arrays.asList( cx, cz) );
+        return keptChunks.contains( cx, cz );
     }
 
     @Override
@@ -415,9 +582,7 @@ public final class BukkitRTPWorld implements RTPWorld {
 
     public void setChunkForceLoaded( int cx, int cz, boolean forceLoaded ) {
         if ( RTP.serverAccessor.getServerIntVersion() < 13 ) return;
-        if ( Bukkit.isPrimaryThread() ) world.setChunkForceLoaded( cx, cz, forceLoaded );
-        else
-            Bukkit.getScheduler().runTask( RTPBukkitPlugin.getInstance(), () -> world.setChunkForceLoaded( cx, cz, forceLoaded) );
+        RTP.serverAccessor.scheduler().executeAt( this, cx, cz, () -> world.setChunkForceLoaded( cx, cz, forceLoaded) );
     }
 
     public int getMaxHeight() {
@@ -0,0 +1,227 @@
+package io.github.dailystruggle.rtp.bukkit.server.substitutions;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.Configs;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.ChunkPriority;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+import org.bukkit.Chunk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * chunk loads for one world, keyed by packed chunk coordinates
+ * <br>concurrent requests for the same chunk share one load, which is dropped from here once it completes
+ * <br>loads wait in one queue per priority class, each class with its own cap on loads in flight,
+ * so interactive loads never queue behind fill or cache refills
+ */
+public final class ChunkLoads {
+    /**
+     * starts a load, urgently or not
+     */
+    public interface Loader {
+        CompletableFuture<Chunk> load( int cx, int cz, boolean urgent );
+    }
+
+    private static final ChunkPriority[] PRIORITIES = ChunkPriority.values();
+
+    private static final AtomicLong totalRequests = new AtomicLong();
+    private static final AtomicLong totalCoalesced = new AtomicLong();
+
+    private static volatile int[] limits = { 64, 16, 4 };
+
+    static {
+        Configs.onReload( ChunkLoads::updateLimits );
+        updateLimits();
+    }
+
+    public static void updateLimits() {
+        if ( RTP.configs == null ) return;
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( performance == null ) return;
+        limits = new int[] {
+                performance.getNumber( PerformanceKeys.interactiveChunkLoads, 64 ).intValue(),
+                performance.getNumber( PerformanceKeys.prefetchChunkLoads, 16 ).intValue(),
+                performance.getNumber( PerformanceKeys.backgroundChunkLoads, 4 ).intValue()
+        };
+    }
+
+    private static final class Entry {
+        private final int cx;
+        private final int cz;
+        private final CompletableFuture<Chunk> future = new CompletableFuture<>();
+        private ChunkPriority priority;
+        private ChunkPriority slot = null; //class whose cap this load counts against, null while queued
+        private boolean urgent = false;
+        private long refs = 1;
+
+        private Entry( int cx, int cz, ChunkPriority priority ) {
+            this.cx = cx;
+            this.cz = cz;
+            this.priority = priority;
+        }
+    }
+
+    private final Loader loader;
+    private final LongObjectHashMap<Entry> loads = new LongObjectHashMap<>( 64 );
+    private final List<ArrayDeque<Entry>> queues = new ArrayList<>( PRIORITIES.length );
+    private final int[] active = new int[PRIORITIES.length];
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public ChunkLoads( Loader loader ) {
+        this.loader = loader;
+        for ( int i = 0; i < PRIORITIES.length; i++ ) queues.add( new ArrayDeque<>() );
+    }
+
+    /**
+     * join the load for this chunk if one is queued or in flight, otherwise queue one
+     * <br>joining at a higher priority moves a queued load up, or re-requests a running one urgently
+     *
+     * @return the shared load - callers should chain off it rather than complete or cancel it
+     */
+    public CompletableFuture<Chunk> load( int cx, int cz, ChunkPriority priority ) {
+        long key = ChunkKey.pack( cx, cz );
+        requests.incrementAndGet();
+        totalRequests.incrementAndGet();
+
+        Entry entry;
+        Entry urgent = null;
+        List<Entry> ready;
+        synchronized ( this ) {
+            entry = loads.get( key );
+            if ( entry != null ) {
+                entry.refs++;
+                coalesced.incrementAndGet();
+                totalCoalesced.incrementAndGet();
+                if ( priority.ordinal() < entry.priority.ordinal() ) {
+                    if ( entry.slot == null ) {
+                        queues.get( entry.priority.ordinal() ).remove( entry );
+                        queues.get( priority.ordinal() ).add( entry );
+                    } else if ( priority.urgent() && !entry.urgent ) {
+                        entry.urgent = true;
+                        urgent = entry;
+                    }
+                    entry.priority = priority;
+                }
+            } else {
+                entry = new Entry( cx, cz, priority );
+                loads.put( key, entry );
+                queues.get( priority.ordinal() ).add( entry );
+                Entry added = entry;
+                entry.future.whenComplete( ( chunk, throwable ) -> {
+                    synchronized ( this ) {
+                        if ( loads.get( key ) == added ) loads.remove( key );
+                    }
+                } );
+            }
+            ready = drain();
+        }
+
+        //the server raises the priority of a load already underway when it's asked again urgently
+        if ( urgent != null ) start( urgent, true, false );
+        for ( Entry e : ready ) start( e, e.urgent, true );
+        return entry.future;
+    }
+
+    /**
+     * take queued loads that fit under their class caps, highest class first
+     * <br>a cap of 0 or less means no cap
+     */
+    private List<Entry> drain() {
+        List<Entry> res = new ArrayList<>();
+        int[] limits = ChunkLoads.limits;
+        for ( ChunkPriority priority : PRIORITIES ) {
+            int i = priority.ordinal();
+            ArrayDeque<Entry> queue = queues.get( i );
+            while ( !queue.isEmpty() && ( limits[i] <= 0 || active[i] < limits[i] ) ) {
+                Entry entry = queue.poll();
+                entry.slot = priority;
+                entry.urgent = priority.urgent();
+                active[i]++;
+                res.add( entry );
+            }
+        }
+        return res;
+    }
+
+    private void start( Entry entry, boolean urgent, boolean holdsSlot ) {
+        CompletableFuture<Chunk> load;
+        try {
+            load = loader.load( entry.cx, entry.cz, urgent );
+        } catch ( Throwable throwable ) {
+            load = new CompletableFuture<>();
+            load.completeExceptionally( throwable );
+        }
+        load.whenComplete( ( chunk, throwable ) -> {
+            if ( throwable != null ) entry.future.completeExceptionally( throwable );
+            else entry.future.complete( chunk );
+            if ( !holdsSlot ) return;
+            List<Entry> ready;
+            synchronized ( this ) {
+                active[entry.slot.ordinal()]--;
+                ready = drain();
+            }
+            for ( Entry e : ready ) start( e, e.urgent, true );
+        } );
+    }
+
+    /**
+     * @return requests currently waiting on this chunk's load, 0 if none is queued or in flight
+     */
+    public synchronized long waiting( int cx, int cz ) {
+        Entry entry = loads.get( ChunkKey.pack( cx, cz ) );
+        return ( entry == null ) ? 0 : entry.refs;
+    }
+
+    /**
+     * @return loads queued or in flight
+     */
+    public synchronized int pending() {
+        return loads.size();
+    }
+
+    /**
+     * @return loads in flight for this class
+     */
+    public synchronized int active( ChunkPriority priority ) {
+        return active[priority.ordinal()];
+    }
+
+    /**
+     * @return loads waiting for a slot in this class
+     */
+    public synchronized int queued( ChunkPriority priority ) {
+        return queues.get( priority.ordinal() ).size();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return share of requests in this world that joined a load already queued or in flight
+     */
+    public double dedupRatio() {
+        long r = requests.get();
+        return ( r == 0 ) ? 0 : ( double ) coalesced.get() / r;
+    }
+
+    /**
+     * @return share of requests across all worlds that joined a load already queued or in flight
+     */
+    public static double totalDedupRatio() {
+        long r = totalRequests.get();
+        return ( r == 0 ) ? 0 : ( double ) totalCoalesced.get() / r;
+    }
+}
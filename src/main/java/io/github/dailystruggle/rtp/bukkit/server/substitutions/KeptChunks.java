@@ -0,0 +1,132 @@
+package io.github.dailystruggle.rtp.bukkit.server.substitutions;
+
+import io.github.dailystruggle.rtp.bukkit.RTPBukkitPlugin;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+/**
+ * reference-counted chunks held by this plugin in one world, keyed by packed chunk coordinates
+ * <br>held with plugin chunk tickets where the server has them (1.14+), which stack with other plugins' tickets
+ * <br>on 1.13, force-loading is used instead, and chunks some other plugin already force-loaded are left as they were
+ */
+public final class KeptChunks {
+    private static final class Entry {
+        private final Chunk chunk;
+        private long count = 1;
+        private boolean forcedHere = false;
+
+        private Entry( Chunk chunk ) {
+            this.chunk = chunk;
+        }
+    }
+
+    private final BukkitRTPWorld rtpWorld;
+    private final World world;
+    private final LongObjectHashMap<Entry> entries = new LongObjectHashMap<>( 64 );
+
+    public KeptChunks( BukkitRTPWorld rtpWorld ) {
+        this.rtpWorld = rtpWorld;
+        this.world = rtpWorld.world();
+    }
+
+    /**
+     * add a reference to a chunk that's already held
+     *
+     * @return false if the chunk isn't held yet, in which case nothing changed
+     */
+    public synchronized boolean retain( int cx, int cz ) {
+        Entry entry = entries.get( ChunkKey.pack( cx, cz ) );
+        if ( entry == null ) return false;
+        entry.count++;
+        return true;
+    }
+
+    /**
+     * add a reference to a loaded chunk, holding it if it's new
+     */
+    public synchronized void retain( int cx, int cz, Chunk chunk ) {
+        long key = ChunkKey.pack( cx, cz );
+        Entry entry = entries.get( key );
+        if ( entry != null ) {
+            entry.count++;
+            return;
+        }
+        entry = new Entry( chunk );
+        entries.put( key, entry );
+        Entry held = entry;
+        onOwningThread( cx, cz, () -> hold( cx, cz, held ) );
+    }
+
+    /**
+     * drop a reference, letting go of the chunk after the last one
+     */
+    public synchronized void release( int cx, int cz ) {
+        long key = ChunkKey.pack( cx, cz );
+        Entry entry = entries.get( key );
+        if ( entry == null ) return;
+        if ( --entry.count > 0 ) return;
+        entries.remove( key );
+        onOwningThread( cx, cz, () -> unhold( cx, cz, entry ) );
+    }
+
+    public synchronized void releaseAll() {
+        LongObjectHashMap<Entry> released = new LongObjectHashMap<>( entries.size() );
+        entries.forEach( released::put );
+        entries.clear();
+        released.forEach( ( key, entry ) -> onOwningThread( ChunkKey.x( key ), ChunkKey.z( key ), () -> unhold( ChunkKey.x( key ), ChunkKey.z( key ), entry ) ) );
+    }
+
+    /**
+     * @return held chunk, or null
+     */
+    public synchronized Chunk get( int cx, int cz ) {
+        Entry entry = entries.get( ChunkKey.pack( cx, cz ) );
+        return ( entry == null ) ? null : entry.chunk;
+    }
+
+    public synchronized boolean contains( int cx, int cz ) {
+        return entries.containsKey( ChunkKey.pack( cx, cz ) );
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void hold( int cx, int cz, Entry entry ) {
+        synchronized ( this ) {
+            //released again before this ran
+            if ( entries.get( ChunkKey.pack( cx, cz ) ) != entry ) return;
+        }
+        int version = RTP.serverAccessor.getServerIntVersion();
+        if ( version >= 14 ) {
+            world.addPluginChunkTicket( cx, cz, RTPBukkitPlugin.getInstance() );
+        } else if ( version == 13 && !world.isChunkForceLoaded( cx, cz ) ) {
+            world.setChunkForceLoaded( cx, cz, true );
+            entry.forcedHere = true;
+        }
+    }
+
+    private void unhold( int cx, int cz, Entry entry ) {
+        synchronized ( this ) {
+            //held again before this ran - the new entry takes over the ticket or force-load
+            Entry current = entries.get( ChunkKey.pack( cx, cz ) );
+            if ( current != null ) {
+                current.forcedHere |= entry.forcedHere;
+                return;
+            }
+        }
+        int version = RTP.serverAccessor.getServerIntVersion();
+        if ( version >= 14 ) {
+            world.removePluginChunkTicket( cx, cz, RTPBukkitPlugin.getInstance() );
+        } else if ( entry.forcedHere ) {
+            world.setChunkForceLoaded( cx, cz, false );
+        }
+    }
+
+    private void onOwningThread( int cx, int cz, Runnable runnable ) {
+        RTP.serverAccessor.scheduler().executeAt( rtpWorld, cx, cz, runnable );
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.dailystruggle.rtp.bukkit.spigotListeners;
 
 import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.event.Cancellable;
@@ -12,11 +13,12 @@ import org.bukkit.event.world.ChunkUnloadEvent;
 public class OnChunkUnload implements Listener {
     @EventHandler( priority = EventPriority.NORMAL )
     public void onChunkUnload( ChunkUnloadEvent event ) {
+        if ( !(event instanceof Cancellable) ) return;
         Chunk chunk = event.getChunk();
         World world = chunk.getWorld();
-        int x = chunk.getX();
-        int z = chunk.getZ();
-        if ( event instanceof Cancellable && RTP.serverAccessor.getRTPWorld( world.getUID() ).isForceLoaded( x, z) ) {
+        RTPWorld rtpWorld = RTP.serverAccessor.getRTPWorld( world.getUID() );
+        //single primitive lookup in the world's kept chunk registry
+        if ( rtpWorld != null && rtpWorld.isForceLoaded( chunk.getX(), chunk.getZ() ) ) {
             ( (Cancellable ) event ).setCancelled( true );
         }
     }
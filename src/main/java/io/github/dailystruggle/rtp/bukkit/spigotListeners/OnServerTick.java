@@ -0,0 +1,42 @@
+package io.github.dailystruggle.rtp.bukkit.spigotListeners;
+
+import io.github.dailystruggle.rtp.common.tasks.TickGovernor;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * feeds paper's tick start and end events to the {@link TickGovernor}
+ */
+public final class OnServerTick implements Listener {
+    private static final String startEvent = "com.destroystokyo.paper.event.server.ServerTickStartEvent";
+    private static final String endEvent = "com.destroystokyo.paper.event.server.ServerTickEndEvent";
+
+    private OnServerTick() {
+
+    }
+
+    /**
+     * @return false if the server doesn't have tick events, so ticks should be scheduled for instead
+     */
+    public static boolean register( Plugin plugin ) {
+        Class<? extends Event> startClass;
+        Class<? extends Event> endClass;
+        try {
+            startClass = Class.forName( startEvent ).asSubclass( Event.class );
+            endClass = Class.forName( endEvent ).asSubclass( Event.class );
+        } catch ( ClassNotFoundException | ClassCastException ignored ) {
+            return false;
+        }
+
+        OnServerTick listener = new OnServerTick();
+        TickGovernor governor = TickGovernor.get();
+        Bukkit.getPluginManager().registerEvent( startClass, listener, EventPriority.MONITOR,
+                ( l, event ) -> governor.tickStart(), plugin, false );
+        Bukkit.getPluginManager().registerEvent( endClass, listener, EventPriority.MONITOR,
+                ( l, event ) -> governor.tickEnd(), plugin, false );
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.dailystruggle.rtp.bukkit.spigotListeners;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * invalidates cached region shapes when a world border moves
+ * <br>paper fires border events, spigot doesn't - there the borders are polled instead
+ */
+public final class OnWorldBorderChange implements Listener {
+    private static final String[] paperEvents = {
+            "io.papermc.paper.event.world.border.WorldBorderBoundsChangeEvent",
+            "io.papermc.paper.event.world.border.WorldBorderBoundsChangeFinishEvent",
+            "io.papermc.paper.event.world.border.WorldBorderCenterChangeEvent"
+    };
+
+    private static final long pollPeriod = 100;
+
+    private final Map<UUID, double[]> lastSeen = new ConcurrentHashMap<>();
+
+    private OnWorldBorderChange() {
+
+    }
+
+    /**
+     * listen for border changes, using paper's events where available and polling otherwise
+     */
+    public static void register( Plugin plugin ) {
+        OnWorldBorderChange listener = new OnWorldBorderChange();
+        boolean registered = false;
+        for ( String className : paperEvents ) {
+            Class<? extends Event> eventClass;
+            try {
+                eventClass = Class.forName( className ).asSubclass( Event.class );
+            } catch ( ClassNotFoundException | ClassCastException ignored ) {
+                continue;
+            }
+            Bukkit.getPluginManager().registerEvent( eventClass, listener, EventPriority.MONITOR, ( l, event ) -> {
+                if ( event instanceof WorldEvent ) listener.onChange( ( (WorldEvent ) event ).getWorld() );
+            }, plugin, true );
+            registered = true;
+        }
+
+        if ( !registered ) {
+            RTP.serverAccessor.scheduler().runGlobalTimer( listener::poll, pollPeriod, pollPeriod );
+        }
+    }
+
+    private void onChange( World world ) {
+        String name = world.getName();
+        RTP.selectionAPI.onWorldBorderChange( name );
+        //bounds events fire before the border moves, so invalidate again once it has
+        RTP.serverAccessor.scheduler().runGlobal( () -> RTP.selectionAPI.onWorldBorderChange( name ), 0 );
+    }
+
+    private void poll() {
+        for ( World world : Bukkit.getWorlds() ) {
+            WorldBorder border = world.getWorldBorder();
+            Location center = border.getCenter();
+            double[] now = new double[]{ border.getSize(), center.getX(), center.getZ() };
+            double[] before = lastSeen.put( world.getUID(), now );
+            if ( before == null ) continue;
+            if ( before[0] != now[0] || before[1] != now[1] || before[2] != now[2] ) {
+                RTP.selectionAPI.onWorldBorderChange( world.getName() );
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.dailystruggle.rtp.bukkit.spigotListeners;
+
+import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPWorld;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public final class OnWorldUnload implements Listener {
+    @EventHandler( priority = EventPriority.MONITOR, ignoreCancelled = true )
+    public void onWorldUnload( WorldUnloadEvent event ) {
+        RTPWorld world = RTP.serverAccessor.getRTPWorld( event.getWorld().getUID() );
+        if ( world instanceof BukkitRTPWorld ) ( (BukkitRTPWorld ) world ).biomeCache.clear();
+    }
+}
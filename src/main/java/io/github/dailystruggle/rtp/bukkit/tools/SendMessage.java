@@ -1,10 +1,10 @@
 package io.github.dailystruggle.rtp.bukkit.tools;
 
 import io.github.dailystruggle.commandsapi.common.CommandsAPI;
-import io.github.dailystruggle.rtp.bukkit.RTPBukkitPlugin;
 import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPCommandSender;
 import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPPlayer;
 import io.github.dailystruggle.rtp.bukkit.server.substitutions.BukkitRTPWorld;
+import io.github.dailystruggle.rtp.bukkit.server.substitutions.ChunkLoads;
 import io.github.dailystruggle.rtp.bukkit.tools.softdepends.PAPIChecker;
 import io.github.dailystruggle.rtp.common.RTP;
 import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
@@ -13,12 +13,15 @@ import io.github.dailystruggle.rtp.common.configuration.enums.MessagesKeys;
 import io.github.dailystruggle.rtp.common.playerData.TeleportData;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
 import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
 import io.github.dailystruggle.rtp.common.tasks.teleport.DoTeleport;
 import io.github.dailystruggle.rtp.common.tasks.teleport.LoadChunks;
 import io.github.dailystruggle.rtp.common.tasks.teleport.SetupTeleport;
+import io.github.dailystruggle.rtp.common.tasks.teleport.TeleportTimeout;
 import io.github.dailystruggle.rtp.common.tools.ParsePermissions;
 import io.github.dailystruggle.rtp.common.tools.ParseString;
+import io.github.dailystruggle.rtp.common.tools.SyncChunkLoads;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.BaseComponent;
@@ -50,7 +53,7 @@ public class SendMessage {
     private static ConfigParser<MessagesKeys> lang = null;
 
     static {
-        Bukkit.getScheduler().runTaskLater( RTPBukkitPlugin.getInstance(), () -> {
+        RTP.serverAccessor.scheduler().runGlobal( () -> {
             lang = ( ConfigParser<MessagesKeys> ) RTP.configs.getParser( MessagesKeys.class );
         }, 2 );
 
@@ -161,10 +164,26 @@ public class SendMessage {
             AtomicInteger c = new AtomicInteger();
             RTP.serverAccessor.getRTPWorlds().forEach( world -> {
                 if ( !(world instanceof BukkitRTPWorld) ) return;
-                c.addAndGet( ((BukkitRTPWorld ) world ).chunkMap.size() );
+                c.addAndGet( ((BukkitRTPWorld ) world ).keptChunks.size() );
             } );
             return String.valueOf( c.get() );
         } );
+        placeholders.put( "chunkDedup", uuid -> String.format( "%.1f", ChunkLoads.totalDedupRatio() * 100 ) );
+        placeholders.put( "avoidedChunkReloads", uuid -> {
+            if ( RTP.getInstance() == null ) return "0";
+            return String.valueOf( RTP.getInstance().chunkReleases.avoided() );
+        } );
+        placeholders.put( "futures", uuid -> String.valueOf( RTP.futures.inFlight() ) );
+        placeholders.put( "teleportTimeouts", uuid -> String.valueOf( TeleportTimeout.timeouts.get() ) );
+        placeholders.put( "teleportRetries", uuid -> String.valueOf( TeleportTimeout.retries.get() ) );
+        placeholders.put( "teleportTimeoutFailures", uuid -> String.valueOf( TeleportTimeout.failures.get() ) );
+        placeholders.put( "syncChunkLoads", uuid -> String.valueOf( SyncChunkLoads.count.get() ) );
+        for ( BlockingStage stage : BlockingStage.values() ) {
+            String name = stage.executor().name();
+            placeholders.put( name + "Active", uuid -> String.valueOf( stage.executor().active() ) );
+            placeholders.put( name + "Queued", uuid -> String.valueOf( stage.executor().queued() ) );
+            placeholders.put( name + "Wait", uuid -> String.valueOf( TimeUnit.NANOSECONDS.toMillis( stage.executor().avgWait() ) ) );
+        }
         placeholders.put( "attempts", uuid -> {
             if ( RTP.getInstance() == null ) return "A";
             TeleportData teleportData = RTP.getInstance().latestTeleportData.get( uuid );
@@ -20,7 +20,9 @@ import io.github.dailystruggle.rtp.common.serverSide.RTPServerAccessor;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPEconomy;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tasks.ChunkReleaseQueue;
 import io.github.dailystruggle.rtp.common.tasks.FillTask;
+import io.github.dailystruggle.rtp.common.tasks.FutureRegistry;
 import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
 import io.github.dailystruggle.rtp.common.tasks.teleport.RTPTeleportCancel;
 import io.github.dailystruggle.rtp.common.tools.ChunkyChecker;
@@ -34,7 +36,7 @@ import java.util.logging.Level;
  * class to hold relevant API functions, outside of Bukkit functionality
  */
 public class RTP {
-    public static final ConcurrentLinkedQueue<CompletableFuture<?>> futures = new ConcurrentLinkedQueue<>();
+    public static final FutureRegistry futures = new FutureRegistry();
 
     public static final SelectionAPI selectionAPI = new SelectionAPI();
 
@@ -75,6 +77,7 @@ public class RTP {
     public final RTPTaskPipe loadChunksPipeline = new RTPTaskPipe();
     public final RTPTaskPipe teleportPipeline = new RTPTaskPipe();
     public final RTPTaskPipe chunkCleanupPipeline = new RTPTaskPipe();
+    public final ChunkReleaseQueue chunkReleases = new ChunkReleaseQueue();
     public final RTPTaskPipe miscSyncTasks = new RTPTaskPipe();
     public final RTPTaskPipe miscAsyncTasks = new RTPTaskPipe();
     public final RTPTaskPipe startupTasks = new RTPTaskPipe();
@@ -134,20 +137,7 @@ public class RTP {
     }
 
     public static void stop() {
-        List<CompletableFuture<?>> validFutures = new ArrayList<>( futures.size() );
-        for( CompletableFuture<?> future : futures ) {
-            if( !future.isDone() ) validFutures.add( future );
-        }
-        if(!validFutures.isEmpty()) {
-            for ( CompletableFuture<?> future : validFutures ) {
-                try {
-                    if ( future.isDone() ) continue;
-                    future.complete( null );
-                } catch ( CancellationException ignored ) {
-
-                }
-            }
-        }
+        futures.completeAll();
 
         if ( instance == null ) return;
 
@@ -165,6 +155,7 @@ public class RTP {
         instance.setupTeleportPipeline.stop();
         instance.loadChunksPipeline.stop();
         instance.teleportPipeline.stop();
+        instance.chunkReleases.flush();
 
         for ( Region r : selectionAPI.permRegionLookup.values() ) {
             r.shutDown();
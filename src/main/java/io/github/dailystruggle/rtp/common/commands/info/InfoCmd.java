@@ -42,6 +42,9 @@ public class InfoCmd extends BaseRTPCmdImpl {
         regionDataLookup.put( "world", region -> region.getWorld().name() );
         regionDataLookup.put( "shape", region -> region.getShape().name );
         regionDataLookup.put( "cacheCap", region -> region.getNumber( RegionKeys.cacheCap, 0 ).toString() );
+        regionDataLookup.put( "cacheTarget", region -> String.valueOf( region.cacheCap() ) );
+        regionDataLookup.put( "requestRate", region -> String.format( "%.2f", region.cacheSizer().arrivalRate() ) );
+        regionDataLookup.put( "refillTime", region -> String.format( "%.2f", Math.max( 0, region.cacheSizer().refillSeconds() ) ) );
         regionDataLookup.put( "cached", region -> String.valueOf( region.getPublicQueueLength()) );
         regionDataLookup.put( "worldBorderOverride", region -> {
             boolean wbo = false;
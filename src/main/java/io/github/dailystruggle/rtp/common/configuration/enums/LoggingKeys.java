@@ -11,5 +11,6 @@ public enum LoggingKeys {
     event_move,
     event_teleport,
     selection_failure,
+    sync_chunk_loads,
     version
 }
@@ -7,6 +7,7 @@ public enum MessagesKeys {
     teleportMessage,
     chunkLoading,
     teleportCancel,
+    teleportTimeout,
     unsafe,
     cooldownMessage,
     noLocationsQueued,
@@ -13,6 +13,29 @@ public enum PerformanceKeys {
     effectParsing,
     biomeRecall,
     biomeRecallForced,
+    fanout,
+    maxSelectionChunkLoads,
+    interactiveChunkLoads,
+    prefetchChunkLoads,
+    backgroundChunkLoads,
+    chunkReleaseDelay,
+    chunkReleasesPerTick,
+    keptChunkBudget,
+    cacheAutoSize,
+    cacheSafetyFactor,
+    cacheMin,
+    cacheMax,
+    cacheTTL,
+    virtualThreads,
+    regionWorkers,
+    selectionConcurrency,
+    databaseConcurrency,
+    fillConcurrency,
+    biomeCacheSize,
+    biomePools,
+    biomePoolCap,
+    teleportTimeout,
+    teleportRetries,
     timeit,
     version
 }
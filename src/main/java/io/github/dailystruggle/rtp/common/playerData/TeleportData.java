@@ -37,6 +37,15 @@ public class TeleportData implements Cloneable {
 
     public boolean written = false;
 
+    //time the request must reach the teleport by, in epoch millis - 0 for none yet, -1 once it's been handled
+    public long deadline = 0;
+
+    //times the request has been set up again after missing its deadline
+    public long retries = 0;
+
+    //bumped whenever a retry is claimed, so two stages that see the same attempt fail can't both retry it
+    public long generation = 0;
+
     @Override
     public TeleportData clone() {
         try {
@@ -56,6 +65,9 @@ public class TeleportData implements Cloneable {
             clone.queueLocation = queueLocation;
             clone.processingTime = processingTime;
             clone.written = written;
+            clone.deadline = deadline;
+            clone.retries = retries;
+            clone.generation = generation;
             return clone;
         } catch ( CloneNotSupportedException e ) {
             throw new AssertionError();
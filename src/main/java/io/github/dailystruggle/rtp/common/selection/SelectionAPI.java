@@ -194,4 +194,18 @@ public class SelectionAPI {
         String regionName = String.valueOf( worldParser.getConfigValue( WorldKeys.region, "default") );
         return permRegionLookup.get( regionName );
     }
+
+    /**
+     * drop cached shapes for regions in a world whose border just moved
+     *
+     * @param worldName world whose border changed
+     */
+    public void onWorldBorderChange( String worldName ) {
+        for ( Region region : permRegionLookup.values() ) {
+            if ( region.getWorld().name().equals( worldName ) ) region.invalidateShape();
+        }
+        for ( Region region : tempRegions.values() ) {
+            if ( region.getWorld().name().equals( worldName ) ) region.invalidateShape();
+        }
+    }
 }
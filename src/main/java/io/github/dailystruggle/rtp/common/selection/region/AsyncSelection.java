@@ -0,0 +1,435 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.enums.LoggingKeys;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+import io.github.dailystruggle.rtp.common.configuration.enums.SafetyKeys;
+import io.github.dailystruggle.rtp.common.selection.region.selectors.memory.shapes.MemoryShape;
+import io.github.dailystruggle.rtp.common.selection.region.selectors.shapes.Shape;
+import io.github.dailystruggle.rtp.common.selection.region.selectors.verticalAdjustors.VerticalAdjustor;
+import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.ChunkPriority;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPBlock;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tasks.AsyncSemaphore;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * continuation-based version of {@link Region#getLocation(Set)}
+ * <br>each attempt is chained onto its chunk future instead of blocking on it,
+ * so one thread can drive any number of selections at once
+ * <br>attempts within one selection still run one after another, and the attempt count,
+ * maxAttempts extension and biome recall behave exactly like the blocking loop
+ * <br>for speculative fan-out, several selections share a settled flag and split the attempt budget
+ */
+final class AsyncSelection {
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture( null );
+
+    /**
+     * where chunk continuations resume, so block reads and vertical scans stay off the thread that finished loading the chunk
+     */
+    static Executor executor = BlockingStage.SELECTION.executor();
+
+    /**
+     * hard cap on selection chunk loads in flight, across all regions
+     */
+    static final AsyncSemaphore chunkLoads = new AsyncSemaphore( 32 );
+
+    private final Region region;
+    @Nullable
+    private final AtomicBoolean settled;
+    private final int split;
+    private final CompletableFuture<Map.Entry<RTPLocation, Long>> result = new CompletableFuture<>();
+    /**
+     * owned rather than thread-local, since continuations hop threads
+     */
+    private final SelectionScratch scratch = new SelectionScratch();
+
+    private Set<String> biomeNames;
+    private boolean defaultBiomes = false;
+    private boolean verbose = false;
+    private Shape<?> shape;
+    private VerticalAdjustor<?> vert;
+    private RTPWorld world;
+    @Nullable
+    private WorldBorder border;
+    private int midY;
+    private Set<String> unsafeBlocks;
+    private int safetyRadius;
+    private long maxAttemptsBase;
+    private long maxAttempts;
+    private long maxBiomeChecks;
+    private boolean biomeRecall;
+    private boolean biomeRecallForced;
+
+    private long i = 1;
+    private long biomeChecks = 0;
+    private long worldBorderFails = 0;
+
+    AsyncSelection( Region region, @Nullable Set<String> biomeNames ) {
+        this( region, biomeNames, null, 1 );
+    }
+
+    /**
+     * @param settled shared between sibling selections, set once any of them wins
+     * @param split   number of siblings sharing maxAttempts
+     */
+    AsyncSelection( Region region, @Nullable Set<String> biomeNames, @Nullable AtomicBoolean settled, int split ) {
+        this.region = region;
+        this.biomeNames = biomeNames;
+        this.settled = settled;
+        this.split = Math.max( split, 1 );
+    }
+
+    static void updateChunkLoadCap() {
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        chunkLoads.setLimit( performance.getNumber( PerformanceKeys.maxSelectionChunkLoads, 32 ).intValue() );
+    }
+
+    CompletableFuture<Map.Entry<RTPLocation, Long>> start() {
+        try {
+            if ( setup() ) step();
+        } catch ( Throwable throwable ) {
+            result.completeExceptionally( throwable );
+        }
+        return result;
+    }
+
+    /**
+     * read configuration once per selection, the same values the blocking loop reads
+     *
+     * @return false if the region can't select right now
+     */
+    private boolean setup() {
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        ConfigParser<SafetyKeys> safety = ( ConfigParser<SafetyKeys> ) RTP.configs.getParser( SafetyKeys.class );
+        ConfigParser<LoggingKeys> logging = ( ConfigParser<LoggingKeys> ) RTP.configs.getParser( LoggingKeys.class );
+
+        if ( biomeNames == null || biomeNames.isEmpty() ) {
+            defaultBiomes = true;
+            biomeNames = region.defaultBiomeNames();
+        }
+
+        if ( logging != null ) {
+            Object o = logging.getConfigValue( LoggingKeys.selection_failure, false );
+            verbose = ( o instanceof Boolean ) ? ( Boolean ) o : Boolean.parseBoolean( o.toString() );
+        }
+
+        shape = region.getShape();
+        if ( shape == null ) {
+            new IllegalStateException( "[RTP] invalid state, null shape" ).printStackTrace();
+            result.complete( null );
+            return false;
+        }
+
+        vert = region.getVert();
+        if ( vert == null ) {
+            new IllegalStateException( "[RTP] invalid state, null vert" ).printStackTrace();
+            result.complete( null );
+            return false;
+        }
+
+        Object o = safety.getConfigValue( SafetyKeys.unsafeBlocks, new ArrayList<>() );
+        unsafeBlocks = ( o instanceof Collection ) ? ( (Collection<?> ) o )
+                .stream().map( o1 -> o1.toString().toUpperCase() ).collect( Collectors.toSet() )
+                : new HashSet<>();
+
+        safetyRadius = safety.getNumber( SafetyKeys.safetyRadius, 0 ).intValue();
+
+        maxAttemptsBase = Math.max( performance.getNumber( PerformanceKeys.maxAttempts, 20 ).longValue(), 1 );
+        maxAttemptsBase = Math.max( ( maxAttemptsBase + split - 1 ) / split, 1 );
+        maxAttempts = maxAttemptsBase;
+        maxBiomeChecks = Region.maxBiomeChecksPerGen * maxAttempts;
+        if ( !defaultBiomes ) maxBiomeChecks *= 10;
+
+        biomeRecall = Boolean.parseBoolean( performance.getConfigValue( PerformanceKeys.biomeRecall, false ).toString() );
+        biomeRecallForced = Boolean.parseBoolean( performance.getConfigValue( PerformanceKeys.biomeRecallForced, false ).toString() );
+
+        world = region.getWorld();
+        border = RTP.serverAccessor.getWorldBorder( world.name() );
+        midY = ( vert.minY() + vert.maxY() ) / 2;
+        return true;
+    }
+
+    /**
+     * run attempts until one has to wait on a chunk, then pick up again from that chunk's continuation
+     * <br>attempts that finish immediately loop here instead of recursing
+     */
+    private void step() {
+        while ( !result.isDone() ) {
+            if ( settled != null && settled.get() ) {
+                //a sibling already won, stop without counting this as a failed selection
+                result.complete( new AbstractMap.SimpleEntry<>( null, Math.min( i, maxAttempts ) ) );
+                return;
+            }
+            if ( i > maxAttempts ) {
+                finish( null );
+                return;
+            }
+
+            CompletableFuture<Void> attempt;
+            try {
+                attempt = attempt();
+            } catch ( Throwable throwable ) {
+                result.completeExceptionally( throwable );
+                return;
+            }
+
+            if ( !attempt.isDone() || attempt.isCompletedExceptionally() ) {
+                attempt.whenComplete( ( unused, throwable ) -> {
+                    if ( throwable != null ) result.completeExceptionally( throwable );
+                    else step();
+                } );
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<Void> attempt() {
+        if ( biomeChecks >= maxBiomeChecks ) {
+            finish( null );
+            return DONE;
+        }
+
+        long l = -1;
+        MemoryShape<?> memoryShape = ( shape instanceof MemoryShape ) ? ( MemoryShape<?> ) shape : null;
+        if ( memoryShape != null ) {
+            l = region.drawLocation( memoryShape, biomeNames, biomeRecall && !defaultBiomes, biomeRecallForced );
+            if ( l < 0 ) {
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return DONE;
+            }
+            scratch.select( memoryShape.locationToXZ( l ) );
+        } else {
+            scratch.select( shape.select() );
+        }
+        if ( verbose ) scratch.recordSelection();
+
+        long location = l;
+        int chunkX = scratch.x;
+        int chunkZ = scratch.z;
+        CompletableFuture<String> cfBiome = region.candidateBiomeAsync( world, memoryShape, l, chunkX, chunkZ, midY,
+                () -> loadChunk( chunkX, chunkZ ) );
+        if ( cfBiome.isDone() && !cfBiome.isCompletedExceptionally() ) {
+            return candidate( cfBiome.join(), location, chunkX, chunkZ );
+        }
+        return cfBiome.handleAsync( ( biome, throwable ) -> {
+            if ( throwable != null ) {
+                RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return DONE;
+            }
+            return candidate( biome, location, chunkX, chunkZ );
+        }, executor ).thenCompose( Function.identity() );
+    }
+
+    /**
+     * continue a drawn candidate once its biome is known - cheap rejections first, then the chunk load
+     */
+    private CompletableFuture<Void> candidate( String currBiome, long l, int chunkX, int chunkZ ) {
+        if ( !biomeNames.contains( currBiome ) ) {
+            if ( defaultBiomes && biomeRecall && shape instanceof MemoryShape ) {
+                ( (MemoryShape<?> ) shape ).addBadLocation( l );
+            }
+            if ( verbose ) scratch.fail( Region.FailTypes.biome, "biome=" + currBiome );
+            biomeChecks++;
+            maxAttempts++;
+            i++;
+            return DONE;
+        }
+
+        if ( border != null && !border.isInside().apply( new RTPLocation( world, chunkX * 16, midY, chunkZ * 16 ) ) ) {
+            maxAttempts++;
+            worldBorderFails++;
+            if ( worldBorderFails > 1000 ) {
+                new IllegalStateException( "1000 worldborder checks failed. region/selection is likely outside the worldborder" ).printStackTrace();
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return DONE;
+            }
+            if ( verbose ) scratch.fail( Region.FailTypes.worldBorder, "OUTSIDE_BORDER" );
+            i++;
+            return DONE;
+        }
+
+        CompletableFuture<RTPChunk> cfChunk = loadChunk( chunkX, chunkZ );
+        return cfChunk.handleAsync( ( chunk, throwable ) -> {
+            if ( throwable != null ) {
+                RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return DONE;
+            }
+            return evaluate( chunk, l, currBiome );
+        }, executor ).thenCompose( Function.identity() );
+    }
+
+    private CompletableFuture<Void> evaluate( RTPChunk chunk, long l, String currBiome ) {
+        if ( chunk == null ) {
+            new IllegalStateException( "[RTP] null chunk" ).printStackTrace();
+            result.complete( null );
+            return DONE;
+        }
+
+        RTPLocation location = vert.adjust( chunk );
+        if ( location == null ) {
+            if ( defaultBiomes && shape instanceof MemoryShape && ( biomeRecall || settled != null ) ) {
+                ( (MemoryShape<?> ) shape ).addBadLocation( l );
+            }
+            if ( verbose ) scratch.fail( Region.FailTypes.vert, "biome=" + currBiome );
+            RTP.getInstance().chunkReleases.unload( chunk );
+            i++;
+            return DONE;
+        }
+
+        //the chunk is loaded by now, so this normally completes at once
+        CompletableFuture<String> cfBiome = world.getBiomeAsync( location.x(), location.y(), location.z(), ChunkPriority.PREFETCH );
+        if ( cfBiome.isDone() && !cfBiome.isCompletedExceptionally() ) {
+            return verify( chunk, location, l, cfBiome.join() );
+        }
+        return cfBiome.handleAsync( ( biome, throwable ) -> {
+            if ( throwable != null ) {
+                RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return DONE;
+            }
+            return verify( chunk, location, l, biome );
+        }, executor ).thenCompose( Function.identity() );
+    }
+
+    private CompletableFuture<Void> verify( RTPChunk chunk, RTPLocation location, long l, String biome ) {
+        if ( !biomeNames.contains( biome ) ) {
+            biomeChecks++;
+            maxAttempts++;
+            if ( defaultBiomes && shape instanceof MemoryShape && ( biomeRecall || settled != null ) ) {
+                ( (MemoryShape<?> ) shape ).addBadLocation( l );
+            }
+            if ( verbose ) scratch.fail( Region.FailTypes.biome, "biome=" + biome );
+            RTP.getInstance().chunkReleases.unload( chunk );
+            i++;
+            return DONE;
+        }
+        //load every chunk the safety radius touches, then check them all at once
+        LongObjectHashMap<CompletableFuture<RTPChunk>> chunks = new LongObjectHashMap<>( 4 );
+        chunks.put( ChunkKey.pack( chunk.x(), chunk.z() ), CompletableFuture.completedFuture( chunk ) );
+        if ( safetyRadius > 0 ) {
+            int minX = Math.floorDiv( location.x() - safetyRadius, 16 );
+            int maxX = Math.floorDiv( location.x() + safetyRadius - 1, 16 );
+            int minZ = Math.floorDiv( location.z() - safetyRadius, 16 );
+            int maxZ = Math.floorDiv( location.z() + safetyRadius - 1, 16 );
+            for ( int cx = minX; cx <= maxX; cx++ ) {
+                for ( int cz = minZ; cz <= maxZ; cz++ ) {
+                    int chunkX = cx;
+                    int chunkZ = cz;
+                    chunks.computeIfAbsent( ChunkKey.pack( chunkX, chunkZ ), key -> loadChunk( chunkX, chunkZ ) );
+                }
+            }
+        }
+
+        List<CompletableFuture<RTPChunk>> futures = new ArrayList<>( chunks.size() );
+        chunks.forEachValue( futures::add );
+        return CompletableFuture.allOf( futures.toArray( new CompletableFuture[0] ) ).handleAsync( ( unused, throwable ) -> {
+            if ( throwable != null ) {
+                RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                release( chunks );
+                result.complete( new AbstractMap.SimpleEntry<>( null, i ) );
+                return null;
+            }
+
+            LongObjectHashMap<RTPChunk> loaded = scratch.chunks;
+            chunks.forEach( ( key, future ) -> loaded.put( key, future.join() ) );
+            loaded.forEachValue( rtpChunk -> rtpChunk.keep( true ) );
+
+            boolean pass = isSafe( location, loaded );
+            loaded.forEachValue( rtpChunk -> rtpChunk.keep( false ) );
+            loaded.clear();
+
+            pass &= Region.checkGlobalRegionVerifiers( location );
+
+            if ( pass ) {
+                if ( shape instanceof MemoryShape && l > 0 ) {
+                    ( (MemoryShape<?> ) shape ).addBiomeLocation( l, biome );
+                }
+                finish( location );
+            } else {
+                if ( verbose ) scratch.fail( Region.FailTypes.misc, "location=" + "(" + location.x() + "," + location.y() + "," + location.z() );
+                if ( shape instanceof MemoryShape ) {
+                    ( (MemoryShape<?> ) shape ).addBadLocation( l );
+                }
+                release( chunks );
+                i++;
+            }
+            return null;
+        }, executor );
+    }
+
+    /**
+     * let go of every chunk this attempt loaded, the safety radius' neighbours along with the centre
+     */
+    private static void release( LongObjectHashMap<CompletableFuture<RTPChunk>> chunks ) {
+        chunks.forEachValue( future -> {
+            if ( !future.isDone() || future.isCompletedExceptionally() ) return;
+            RTPChunk loaded = future.getNow( null );
+            if ( loaded != null ) RTP.getInstance().chunkReleases.unload( loaded );
+        } );
+    }
+
+    /**
+     * load a chunk under the shared selection cap, holding the permit until the load finishes
+     */
+    private CompletableFuture<RTPChunk> loadChunk( int cx, int cz ) {
+        return chunkLoads.acquire().thenCompose( unused -> {
+            CompletableFuture<RTPChunk> cfChunk;
+            try {
+                cfChunk = world.getChunkAt( cx, cz, ChunkPriority.PREFETCH );
+            } catch ( Throwable throwable ) {
+                chunkLoads.release();
+                throw throwable;
+            }
+            RTP.futures.register( region, cfChunk );
+            cfChunk.whenComplete( ( chunk, throwable ) -> chunkLoads.release() );
+            return cfChunk;
+        } );
+    }
+
+    //todo: waterlogged check
+    private boolean isSafe( RTPLocation location, LongObjectHashMap<RTPChunk> chunks ) {
+        int maxHeight = world.getMaxHeight();
+        int minHeight = world.getMinHeight();
+        for ( int x = location.x() - safetyRadius; x < location.x() + safetyRadius; x++ ) {
+            for ( int z = location.z() - safetyRadius; z < location.z() + safetyRadius; z++ ) {
+                RTPChunk chunk = chunks.get( ChunkKey.ofBlock( x, z ) );
+                for ( int y = location.y() - safetyRadius; y < location.y() + safetyRadius; y++ ) {
+                    if ( y > maxHeight || y < minHeight ) continue;
+                    RTPBlock block = chunk.getBlockAt( x, y, z );
+                    String material = block.getMaterial();
+                    if ( unsafeBlocks.contains( material ) ) {
+                        if ( verbose ) scratch.fail( Region.FailTypes.safety, "material=" + material );
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void finish( @Nullable RTPLocation location ) {
+        if ( verbose && i >= maxAttempts || i > maxAttemptsBase * Region.maxBiomeChecksPerGen ) {
+            region.logSelectionFailures( maxAttempts, scratch.failMap, scratch.selections, scratch.selectionCount );
+        }
+        region.recordSelection( location != null, Math.min( i, maxAttempts ) );
+        result.complete( new AbstractMap.SimpleEntry<>( location, Math.min( i, maxAttempts ) ) );
+    }
+}
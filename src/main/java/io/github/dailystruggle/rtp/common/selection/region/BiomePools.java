@@ -0,0 +1,111 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+import io.github.dailystruggle.rtp.common.tools.RateEstimator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * warm location pools for biome-filtered requests, one per requested biome set
+ * <br>only the most requested sets are stocked, each sized from its recent demand
+ */
+final class BiomePools {
+    /**
+     * demand half-life, and how far ahead each pool stocks - one request keeps a location on hand for a few minutes
+     */
+    static final double DEMAND_HALF_LIFE = 300;
+
+    static final class Pool {
+        final Set<String> biomes;
+        final RateEstimator demand = new RateEstimator( DEMAND_HALF_LIFE );
+        final ConcurrentLinkedQueue<Map.Entry<RTPLocation, Long>> queue = new ConcurrentLinkedQueue<>();
+        final AtomicLong inFlight = new AtomicLong();
+
+        Pool( Set<String> biomes ) {
+            this.biomes = Collections.unmodifiableSet( new HashSet<>( biomes ) );
+        }
+
+        /**
+         * @return locations to keep on hand for the current demand, up to cap
+         */
+        long target( long cap ) {
+            return Math.min( cap, Math.round( demand.rate() * DEMAND_HALF_LIFE ) );
+        }
+    }
+
+    final ConcurrentHashMap<String, Pool> pools = new ConcurrentHashMap<>();
+
+    static String key( Set<String> biomes ) {
+        if ( biomes.size() == 1 ) return biomes.iterator().next();
+        String[] names = biomes.toArray( new String[0] );
+        Arrays.sort( names );
+        return String.join( ",", names );
+    }
+
+    /**
+     * count one request for this biome set, creating its pool on first sight
+     */
+    void recordDemand( Set<String> biomes ) {
+        pools.computeIfAbsent( key( biomes ), s -> new Pool( biomes ) ).demand.record();
+    }
+
+    /**
+     * @return a pooled location for exactly this biome set, or null
+     */
+    Map.Entry<RTPLocation, Long> poll( Set<String> biomes ) {
+        Pool pool = pools.get( key( biomes ) );
+        return ( pool == null ) ? null : pool.queue.poll();
+    }
+
+    /**
+     * @return the pool for this biome set if it's still short of its target
+     */
+    Pool wanting( Set<String> biomes, int maxPools, long cap ) {
+        Pool pool = pools.get( key( biomes ) );
+        if ( pool == null || !hot( maxPools ).contains( pool ) ) return null;
+        return ( pool.queue.size() + pool.inFlight.get() < pool.target( cap ) ) ? pool : null;
+    }
+
+    /**
+     * @return the most requested pools, at most maxPools, dropping idle pools along the way
+     */
+    List<Pool> hot( int maxPools ) {
+        List<Pool> res = new ArrayList<>( pools.size() );
+        Map<Pool, Double> rates = new HashMap<>();
+        for ( Iterator<Pool> iterator = pools.values().iterator(); iterator.hasNext(); ) {
+            Pool pool = iterator.next();
+            double rate = pool.demand.rate();
+            if ( Math.round( rate * DEMAND_HALF_LIFE ) <= 0 ) {
+                if ( pool.queue.isEmpty() && pool.inFlight.get() == 0 ) iterator.remove();
+                continue;
+            }
+            rates.put( pool, rate );
+            res.add( pool );
+        }
+        res.sort( ( a, b ) -> Double.compare( rates.get( b ), rates.get( a ) ) );
+        return ( res.size() > maxPools ) ? res.subList( 0, Math.max( maxPools, 0 ) ) : res;
+    }
+
+    /**
+     * empty every pool
+     *
+     * @param release called for each dropped location, to let go of its chunks
+     */
+    void clear( Consumer<RTPLocation> release ) {
+        for ( Pool pool : pools.values() ) {
+            for ( Map.Entry<RTPLocation, Long> entry; ( entry = pool.queue.poll() ) != null; ) {
+                if ( entry.getKey() != null ) release.accept( entry.getKey() );
+            }
+        }
+    }
+
+    long size() {
+        long res = 0;
+        for ( Pool pool : pools.values() ) res += pool.queue.size();
+        return res;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.tools.RateEstimator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * live size for a region's public cache, from how often players ask it for locations and how long one takes to refill
+ * <br>by little's law, about rate * refill time locations go out while one is being replaced, so the target is that
+ * times a safety factor for bursts, within the configured bounds
+ */
+public final class CacheSizer {
+    /**
+     * arrival rate half-life, short enough to follow an event starting or ending within a few minutes
+     */
+    public static final double ARRIVAL_HALF_LIFE = 60;
+    /**
+     * weight of each new refill time in its moving average
+     */
+    public static final double REFILL_WEIGHT = 0.2;
+    private static final long UPKEEP_NANOS = 1_000_000_000L;
+
+    private final RateEstimator arrivals;
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastUpkeep;
+    private double refillSeconds = -1;
+
+    public CacheSizer() {
+        this( System::nanoTime );
+    }
+
+    /**
+     * @param nanoClock time source in nanoseconds, replaceable for tests
+     */
+    public CacheSizer( LongSupplier nanoClock ) {
+        this.arrivals = new RateEstimator( ARRIVAL_HALF_LIFE, nanoClock );
+        this.nanoClock = nanoClock;
+        this.lastUpkeep = new AtomicLong( nanoClock.getAsLong() );
+    }
+
+    public void recordRequest() {
+        arrivals.record();
+    }
+
+    /**
+     * @param nanos time from starting a refill to its location being ready
+     */
+    public synchronized void recordRefill( long nanos ) {
+        double seconds = Math.max( 0, nanos ) / 1_000_000_000.0;
+        refillSeconds = ( refillSeconds < 0 ) ? seconds : refillSeconds + REFILL_WEIGHT * ( seconds - refillSeconds );
+    }
+
+    /**
+     * @return requests per second
+     */
+    public double arrivalRate() {
+        return arrivals.rate();
+    }
+
+    /**
+     * @return average refill time in seconds, or -1 before the first refill
+     */
+    public synchronized double refillSeconds() {
+        return refillSeconds;
+    }
+
+    /**
+     * @param safety   multiple of the expected use during one refill to keep on hand
+     * @param fallback size to use until a refill has been timed
+     * @return locations to keep cached, between min and max
+     */
+    public long target( double safety, long min, long max, long fallback ) {
+        double refill = refillSeconds();
+        long res = ( refill < 0 ) ? fallback : ( long ) Math.ceil( arrivalRate() * refill * safety );
+        return Math.max( min, Math.min( max, res ) );
+    }
+
+    /**
+     * @return whether it's been a second since the region last trimmed and re-checked its cache, claiming this run if so
+     */
+    boolean upkeepDue() {
+        long now = nanoClock.getAsLong();
+        long last = lastUpkeep.get();
+        return now - last >= UPKEEP_NANOS && lastUpkeep.compareAndSet( last, now );
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * a public cache entry - the location and the attempts it took - stamped with when it was cached or last re-checked
+ */
+public final class CachedLocation extends AbstractMap.SimpleEntry<RTPLocation, Long> {
+    private final AtomicBoolean rechecking = new AtomicBoolean( false );
+    private volatile long checkedAt;
+
+    public CachedLocation( Map.Entry<RTPLocation, Long> pair ) {
+        super( pair );
+        this.checkedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return when this was cached or last passed a re-check, in epoch millis
+     */
+    public long checkedAt() {
+        return checkedAt;
+    }
+
+    /**
+     * mark this as just re-checked
+     */
+    public void touch( long now ) {
+        checkedAt = now;
+    }
+
+    /**
+     * @return whether this caller gets to queue the re-check, false if one is already waiting on its chunk
+     */
+    boolean claimRecheck() {
+        return rechecking.compareAndSet( false, true );
+    }
+
+    void recheckDone() {
+        rechecking.set( false );
+    }
+}
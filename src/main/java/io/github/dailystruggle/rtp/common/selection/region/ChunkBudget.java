@@ -0,0 +1,98 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+import io.github.dailystruggle.rtp.common.selection.SelectionAPI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * one budget for the chunks kept by cached locations, shared by every region
+ * <br>each region's share follows its recent demand - a region over its share lets go of the chunks for its
+ * last-in-line cached locations, leaving those as coordinates only, to be loaded again when used
+ */
+final class ChunkBudget {
+    private static final long REBALANCE_NANOS = 1_000_000_000L;
+
+    /**
+     * share of the average demand every region is credited with, so a region that's quiet right now isn't emptied outright
+     */
+    static final double FLOOR = 0.1;
+
+    private static final AtomicLong lastRebalance = new AtomicLong( System.nanoTime() - REBALANCE_NANOS );
+    private static volatile boolean exhausted = false;
+
+    private ChunkBudget() {
+
+    }
+
+    static long budget() {
+        if ( RTP.configs == null ) return 0;
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( performance == null ) return 0;
+        return performance.getNumber( PerformanceKeys.keptChunkBudget, 4096 ).longValue();
+    }
+
+    /**
+     * @return whether the budget was used up at the last rebalance - new public locations should be cached as coordinates only
+     */
+    static boolean exhausted() {
+        return exhausted;
+    }
+
+    /**
+     * rebalance across all regions, at most once a second
+     */
+    static void maybeRebalance() {
+        long now = System.nanoTime();
+        long last = lastRebalance.get();
+        if ( now - last < REBALANCE_NANOS || !lastRebalance.compareAndSet( last, now ) ) return;
+
+        SelectionAPI selectionAPI = RTP.selectionAPI;
+        if ( selectionAPI == null ) return;
+        List<Region> regions = new ArrayList<>( selectionAPI.permRegionLookup.values() );
+        regions.addAll( selectionAPI.tempRegions.values() );
+        rebalance( regions, budget() );
+    }
+
+    /**
+     * split the budget by demand and downgrade whatever each region holds beyond its share
+     *
+     * @param budget most chunks to keep across all regions, 0 or less for no limit
+     */
+    static void rebalance( Collection<Region> regions, long budget ) {
+        if ( budget <= 0 || regions.isEmpty() ) {
+            exhausted = false;
+            return;
+        }
+
+        Region[] rs = regions.toArray( new Region[0] );
+        long[] kept = new long[rs.length];
+        double[] demand = new double[rs.length];
+        long total = 0;
+        double totalDemand = 0;
+        for ( int i = 0; i < rs.length; i++ ) {
+            kept[i] = rs[i].keptChunks();
+            demand[i] = rs[i].requestRate.rate();
+            total += kept[i];
+            totalDemand += demand[i];
+        }
+
+        if ( total < budget ) {
+            exhausted = false;
+            return;
+        }
+
+        double floor = ( totalDemand > 0 ) ? FLOOR * totalDemand / rs.length : 1;
+        double weights = totalDemand + floor * rs.length;
+        for ( int i = 0; i < rs.length; i++ ) {
+            long share = ( long ) ( budget * ( demand[i] + floor ) / weights );
+            if ( kept[i] > share ) total -= rs[i].downgrade( kept[i] - share );
+        }
+        exhausted = total >= budget;
+    }
+}
@@ -5,62 +5,65 @@ import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.logging.Level;
+import java.util.function.Function;
 
+/**
+ * the chunks around one location, loaded together
+ * <br>{@link #complete} finishes once every chunk has settled - true if all of them loaded, false if any failed or
+ * came back empty - so callers continue from it instead of waiting on each chunk
+ */
 public final class ChunkSet {
     public final List<CompletableFuture<RTPChunk>> chunks;
     public final CompletableFuture<Boolean> complete;
+    private final AtomicInteger failed = new AtomicInteger();
 
     public ChunkSet( List<CompletableFuture<RTPChunk>> chunks, CompletableFuture<Boolean> complete ) {
         this.chunks = chunks;
         this.complete = complete;
 
-        AtomicLong count = new AtomicLong();
-        Semaphore countAccess = new Semaphore( 1 );
-        chunks.forEach( rtpChunkCompletableFuture -> rtpChunkCompletableFuture.thenAccept( rtpChunk -> {
-            try {
-                countAccess.acquire();
-                long i = count.incrementAndGet();
-                if ( i == chunks.size() ) {
-                    this.complete.complete( true );
-                }
-            } catch ( InterruptedException e ) {
-                RTP.log( Level.WARNING, e.getMessage(), e );
-            } finally {
-                countAccess.release();
-            }
-        }) );
+        //settle each chunk without failing, so one bad chunk can't keep the rest from being counted
+        CompletableFuture<?>[] settled = new CompletableFuture[chunks.size()];
+        for ( int i = 0; i < settled.length; i++ ) {
+            settled[i] = chunks.get( i ).handle( ( rtpChunk, throwable ) -> {
+                if ( throwable != null || rtpChunk == null ) failed.incrementAndGet();
+                return null;
+            } );
+        }
+        CompletableFuture.allOf( settled ).thenRun( () -> this.complete.complete( failed.get() == 0 ) );
+    }
+
+    /**
+     * @return chunks that failed to load so far
+     */
+    public int failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return a stage of {@link #complete} for one caller, so cancelling it leaves the set to its other users
+     */
+    public CompletableFuture<Boolean> loaded() {
+        return complete.thenApply( Function.identity() );
     }
 
     public void keep( boolean keep ) {
-        chunks.forEach( chunk -> {
-            if ( chunk.isDone() ) {
-                try {
-                    RTPChunk rtpChunk = chunk.get();
-                    rtpChunk.keep( keep );
-                } catch ( InterruptedException | ExecutionException e ) {
-                    RTP.log( Level.WARNING, e.getMessage(), e );
-                }
-            } else {
-                chunk.thenAccept( chunk1 -> chunk1.keep( keep) );
-            }
-        } );
+        chunks.forEach( chunk -> chunk.thenAccept( rtpChunk -> {
+            if ( rtpChunk != null ) rtpChunk.keep( keep );
+        } ) );
     }
 
-    public void whenComplete( Consumer<Boolean> consumer ) {
-        if ( complete.isDone() ) {
-            try {
-                consumer.accept( complete.get() );
-            } catch ( InterruptedException | ExecutionException e ) {
-                RTP.log( Level.WARNING, e.getMessage(), e );
-            }
-            return;
-        }
+    /**
+     * let go of the chunks after the release grace period, so a nearby teleport soon after can reuse them
+     */
+    public void release() {
+        chunks.forEach( chunk -> chunk.thenAccept( rtpChunk -> {
+            if ( rtpChunk != null ) RTP.getInstance().chunkReleases.forget( rtpChunk.getWorld(), rtpChunk.x(), rtpChunk.z() );
+        } ) );
+    }
 
+    public void whenComplete( Consumer<Boolean> consumer ) {
         complete.thenAccept( consumer );
     }
 }
@@ -3,6 +3,7 @@ package io.github.dailystruggle.rtp.common.selection.region;
 import io.github.dailystruggle.commandsapi.common.CommandsAPI;
 import io.github.dailystruggle.rtp.common.RTP;
 import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.Configs;
 import io.github.dailystruggle.rtp.common.configuration.enums.*;
 import io.github.dailystruggle.rtp.common.factory.Factory;
 import io.github.dailystruggle.rtp.common.factory.FactoryValue;
@@ -14,17 +15,26 @@ import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.*;
 import io.github.dailystruggle.rtp.common.tasks.FillTask;
 import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+import io.github.dailystruggle.rtp.common.tasks.PriorityTaskPipe;
+import io.github.dailystruggle.rtp.common.tasks.RTPPrioritized;
 import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
 import io.github.dailystruggle.rtp.common.tasks.teleport.LoadChunks;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+import io.github.dailystruggle.rtp.common.tools.RateEstimator;
+import io.github.dailystruggle.rtp.common.tools.SyncChunkLoads;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.simpleyaml.configuration.MemorySection;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -39,6 +49,17 @@ public class Region extends FactoryValue<RegionKeys> {
     private static final AtomicLong lastUpdate = new AtomicLong( 0 );
     private static final AtomicInteger safetyRadius = new AtomicInteger( 0 );
     public static int maxBiomeChecksPerGen = 100;
+    /**
+     * bumped on config reload, invalidating every region's resolved shape at once
+     */
+    private static final AtomicLong shapeEpoch = new AtomicLong();
+    //a shape taken from a world border is re-resolved this often, since some border plugins don't say when they move
+    private static final long BORDER_SHAPE_TTL = TimeUnit.SECONDS.toNanos( 5 );
+
+    static {
+        Configs.onReload( Region::invalidateShapes );
+    }
+
     private final Semaphore cacheGuard = new Semaphore( 1 );
     /**
      * public/shared cache for this region
@@ -54,8 +75,33 @@ public class Region extends FactoryValue<RegionKeys> {
      *
      */
     public ConcurrentHashMap<UUID, CompletableFuture<Map.Entry<RTPLocation, Long>>> fastLocations = new ConcurrentHashMap<>();
-    public RTPTaskPipe cachePipeline = new RTPTaskPipe();
-    public RTPTaskPipe miscPipeline = new RTPTaskPipe();
+    public RTPTaskPipe cachePipeline = new PriorityTaskPipe();
+    /**
+     * cache selections started but not yet finished, counted toward the cache cap
+     */
+    protected AtomicLong cacheInFlight = new AtomicLong();
+    /**
+     * moving estimate of how often a single candidate passes, used to size speculative fan-out
+     */
+    protected volatile double candidateSuccessRate = 1.0;
+    /**
+     * warm locations for the most requested biome filters
+     */
+    protected BiomePools biomePools = new BiomePools();
+    /**
+     * how often players ask this region for a location, weighting its share of the kept-chunk budget
+     */
+    protected RateEstimator requestRate = new RateEstimator( BiomePools.DEMAND_HALF_LIFE );
+    /**
+     * live public cache size, when auto-sizing is on
+     */
+    protected CacheSizer cacheSizer = new CacheSizer();
+    /**
+     * bumped by set/setData and world border changes, invalidating this region's resolved shape
+     */
+    protected AtomicLong shapeVersion = new AtomicLong();
+    private volatile ResolvedShape resolvedShape = null;
+    public RTPTaskPipe miscPipeline = new PriorityTaskPipe();
     protected ConcurrentLinkedQueue<UUID> playerQueue = new ConcurrentLinkedQueue<>();
     public Region( String name, EnumMap<RegionKeys, Object> params ) {
         super( RegionKeys.class, name );
@@ -92,7 +138,7 @@ public class Region extends FactoryValue<RegionKeys> {
                 RTP.getInstance().fillTasks.put( name, new FillTask( this, iter) );
         }
 
-        long cacheCap = getNumber( RegionKeys.cacheCap, 10L ).longValue();
+        long cacheCap = cacheCap();
         for ( long i = cachePipeline.size(); i < cacheCap; i++ ) {
             cachePipeline.add( new Cache() );
         }
@@ -155,14 +201,21 @@ public class Region extends FactoryValue<RegionKeys> {
         long start = System.nanoTime();
 
         miscPipeline.execute( availableTime );
+        ChunkBudget.maybeRebalance();
 
-        long cacheCap = getNumber( RegionKeys.cacheCap, 10L ).longValue();
+        long cacheCap = cacheCap();
+        if ( cacheSizer.upkeepDue() ) {
+            if ( cacheAutoSize() ) trimCache( cacheCap );
+            refreshCache();
+        }
         cacheCap = Math.max( cacheCap, playerQueue.size() );
         try {
             cacheGuard.acquire();
-            if ( locationQueue.size() >= cacheCap ) return;
-            while ( cachePipeline.size() + locationQueue.size() < cacheCap + playerQueue.size() )
-                cachePipeline.add( new Cache() );
+            if ( locationQueue.size() < cacheCap ) {
+                while ( cachePipeline.size() + locationQueue.size() + cacheInFlight.get() < cacheCap + playerQueue.size() )
+                    cachePipeline.add( new Cache() );
+            }
+            refillBiomePools();
             cachePipeline.execute( availableTime - ( System.nanoTime() - start) ); //todo: too fast for server
 //            cachePipeline.execute( 0 );
         } catch ( InterruptedException e ) {
@@ -183,7 +236,7 @@ public class Region extends FactoryValue<RegionKeys> {
             RTPPlayer player = RTP.serverAccessor.getPlayer( playerId );
             if ( player == null ) continue;
 
-            Map.Entry<RTPLocation, Long> pair = locationQueue.poll();
+            Map.Entry<RTPLocation, Long> pair = pollValid();
             if ( pair == null ) {
                 playerQueue.add( playerId );
                 continue;
@@ -221,6 +274,15 @@ public class Region extends FactoryValue<RegionKeys> {
         }
     }
 
+    /**
+     * take a player out of line, e.g. once their request is cancelled or timed out
+     *
+     * @return whether they were in line
+     */
+    public boolean dequeue( UUID playerId ) {
+        return playerQueue.remove( playerId );
+    }
+
     public boolean hasLocation( @Nullable UUID uuid ) {
         boolean res = !locationQueue.isEmpty();
         res |= ( uuid != null ) && ( perPlayerLocationQueue.containsKey( uuid) );
@@ -231,6 +293,8 @@ public class Region extends FactoryValue<RegionKeys> {
         Map.Entry<RTPLocation, Long> pair = null;
 
         getShape(); //validate shape before using cache
+        requestRate.record();
+        cacheSizer.recordRequest();
 
         UUID playerId = player.uuid();
 
@@ -240,7 +304,7 @@ public class Region extends FactoryValue<RegionKeys> {
             ConcurrentLinkedQueue<Map.Entry<RTPLocation, Long>> playerLocationQueue = perPlayerLocationQueue.get( playerId );
             RTPChunk chunk = null;
             while ( !playerLocationQueue.isEmpty() ) {
-                if ( chunk != null ) chunk.unload();
+                if ( chunk != null ) RTP.getInstance().chunkReleases.unload( chunk );
                 pair = playerLocationQueue.poll();
                 if ( pair == null || pair.getKey() == null ) continue;
                 RTPLocation left = pair.getKey();
@@ -248,13 +312,19 @@ public class Region extends FactoryValue<RegionKeys> {
 
                 int cx = ( left.x() > 0 ) ? left.x() / 16 : left.x() / 16 - 1;
                 int cz = ( left.z() > 0 ) ? left.z() / 16 : left.z() / 16 - 1;
-                CompletableFuture<RTPChunk> chunkAt = left.world().getChunkAt( cx, cz );
+                CompletableFuture<RTPChunk> chunkAt = left.world().getChunkAt( cx, cz, ChunkPriority.INTERACTIVE );
                 try {
-                    chunk = chunkAt.get();
+                    chunk = SyncChunkLoads.await( chunkAt, left.world(), cx, cz );
                 } catch ( InterruptedException | ExecutionException e ) {
                    RTP.log( Level.WARNING, e.getMessage(), e );
                     continue;
                 }
+                if ( chunk == null && !chunkAt.isDone() ) {
+                    //not in yet, and this is the main thread - keep it for their next request
+                    playerLocationQueue.add( pair );
+                    pair = null;
+                    break;
+                }
                 if( chunk == null ) return null;
 
                 long t = System.currentTimeMillis();
@@ -338,7 +408,11 @@ public class Region extends FactoryValue<RegionKeys> {
                         if( chunks.containsKey( xz) ) chunk1 = chunks.get( xz );
                         else {
                             try {
-                                chunk1 = getWorld().getChunkAt( chunkX, chunkZ ).get();
+                                chunk1 = SyncChunkLoads.await( getWorld().getChunkAt( chunkX, chunkZ, ChunkPriority.INTERACTIVE ), getWorld(), chunkX, chunkZ );
+                                if ( chunk1 == null ) {
+                                    pass = false;
+                                    continue;
+                                }
                                 chunks.put( xz,chunk1 );
                                 chunk1.keep( true );
                             } catch ( InterruptedException | ExecutionException e ) {
@@ -360,16 +434,25 @@ public class Region extends FactoryValue<RegionKeys> {
             }
         }
 
-        while ( !custom && !locationQueue.isEmpty() ) {
-            pair = locationQueue.poll();
-            if ( pair == null ) return null;
-            RTPLocation left = pair.getKey();
-            if ( left == null ) return pair;
-            boolean pass = checkGlobalRegionVerifiers( left );
-            if ( pass ) return pair;
+        if ( custom ) {
+            biomePools.recordDemand( biomeNames );
+            while ( (pair = biomePools.poll( biomeNames )) != null ) {
+                RTPLocation left = pair.getKey();
+                if ( left == null ) continue;
+                if ( revalidate( left ) ) return pair;
+                removeChunks( left );
+            }
+        }
+
+        if ( !custom ) {
+            pair = pollValid();
+            if ( pair != null ) return pair;
         }
 
-        if ( custom || sender.hasPermission( "rtp.unqueued") ) {
+        //a request retried after its deadline doesn't wait in line a second time
+        TeleportData retryData = RTP.getInstance().latestTeleportData.get( playerId );
+        boolean retry = retryData != null && !retryData.completed && retryData.retries > 0;
+        if ( custom || retry || sender.hasPermission( "rtp.unqueued") ) {
             pair = getLocation( biomeNames );
             long attempts = pair.getValue();
             TeleportData data = RTP.getInstance().latestTeleportData.get( playerId );
@@ -416,26 +499,7 @@ public class Region extends FactoryValue<RegionKeys> {
         Object o;
         if ( biomeNames == null || biomeNames.isEmpty() ) {
             defaultBiomes = true;
-            o = safety.getConfigValue( SafetyKeys.biomeWhitelist, false );
-            boolean whitelist = ( o instanceof Boolean ) ? ( Boolean ) o : Boolean.parseBoolean( o.toString() );
-
-            o = safety.getConfigValue( SafetyKeys.biomes, null );
-            List<String> biomeList = ( o instanceof List ) ? ( (List<?> ) o ).stream().map( Object::toString ).collect( Collectors.toList() ) : null;
-            Set<String> biomeSet = ( biomeList == null )
-                    ? new HashSet<>()
-                    : biomeList.stream().map( String::toUpperCase ).collect( Collectors.toSet() );
-            if ( whitelist ) {
-                biomeNames = biomeSet;
-            } else {
-                Set<String> biomes = RTP.serverAccessor.getBiomes( getWorld() );
-                Set<String> set = new HashSet<>();
-                for ( String s : biomes ) {
-                    if ( !biomeSet.contains( s.toUpperCase()) ) {
-                        set.add( s );
-                    }
-                }
-                biomeNames = set;
-            }
+            biomeNames = defaultBiomeNames();
         }
 
         boolean verbose = false;
@@ -475,135 +539,86 @@ public class Region extends FactoryValue<RegionKeys> {
         long biomeChecks = 0L;
 
         RTPWorld world = getWorld();
+        WorldBorder border = RTP.serverAccessor.getWorldBorder( world.name() );
+        int midY = ( vert.minY() + vert.maxY() ) / 2;
+        int maxHeight = world.getMaxHeight();
+        int minHeight = world.getMinHeight();
+        MemoryShape<?> memoryShape = ( shape instanceof MemoryShape ) ? ( MemoryShape<?> ) shape : null;
 
-        Map<FailTypes,Map<String,Long>> failMap = new EnumMap<>( FailTypes.class );
-        for( FailTypes f : FailTypes.values() ) failMap.put( f,new HashMap<>() );
-        List<Map.Entry<Long, Long>> selections = new ArrayList<>();
+        //reused per thread, so a steady-state attempt allocates next to nothing
+        SelectionScratch scratch = SelectionScratch.get();
+        LongObjectHashMap<RTPChunk> chunks = scratch.chunks;
+        long worldBorderFails = 0;
 
         RTPLocation location = null;
         long i = 1;
 
         boolean biomeRecall = Boolean.parseBoolean( performance.getConfigValue( PerformanceKeys.biomeRecall, false ).toString() );
         boolean biomeRecallForced = Boolean.parseBoolean( performance.getConfigValue( PerformanceKeys.biomeRecallForced, false ).toString() );
+        boolean recall = biomeRecall && !defaultBiomes;
 
         for ( ; i <= maxAttempts; i++ ) {
+            location = null;
             long l = -1;
-            int[] select;
-            if ( shape instanceof MemoryShape ) {
-                MemoryShape<?> memoryShape = ( MemoryShape<?> ) shape;
-                if ( biomeRecall && !defaultBiomes ) {
-                    List<Map.Entry<Long, Long>> biomes = new ArrayList<>();
-                    for ( String biomeName : biomeNames ) {
-                        ConcurrentSkipListMap<Long, Long> map = memoryShape.biomeLocations.get( biomeName );
-                        if ( map != null ) {
-                            biomes.addAll( map.entrySet() );
-                        }
-                    }
-                    Map.Entry<Long, Long> entry;
-                    if( biomes.size()>0 ) {
-                        int nextInt = ThreadLocalRandom.current().nextInt( biomes.size() );
-                        entry = biomes.get( nextInt );
-                        l = entry.getKey() + ThreadLocalRandom.current().nextLong( entry.getValue() );
-                    }
-                    else if( biomeRecallForced ) {
-                        new IllegalStateException( "[RTP] invalid state, biome recall enabled but biomes are not in memory - " + Arrays.toString( biomeNames.toArray()) ).printStackTrace();
-                        return new AbstractMap.SimpleEntry<>( null, i );
-                    }
-                    else l = memoryShape.rand();
-                } else {
-                    l = memoryShape.rand();
-                }
-
-                select = memoryShape.locationToXZ( l );
-
+            if ( memoryShape != null ) {
+                l = drawLocation( memoryShape, biomeNames, recall, biomeRecallForced );
+                if ( l < 0 ) return new AbstractMap.SimpleEntry<>( null, i );
+                scratch.select( memoryShape.locationToXZ( l ) );
             } else {
-                select = shape.select();
-            }
-            if ( verbose ) {
-//                if( shape instanceof MemoryShape ) selections.add( new AbstractMap.SimpleEntry<>( (long ) selections.size(), l) );
-//                else selections.add( new AbstractMap.SimpleEntry<>( (long ) select[0], ( long ) select[1]) );
-                selections.add( new AbstractMap.SimpleEntry<>( (long ) select[0], ( long ) select[1]) );
+                scratch.select( shape.select() );
             }
+            if ( verbose ) scratch.recordSelection();
 
-            String currBiome = world.getBiome( select[0] * 16 + 7, ( vert.minY() + vert.maxY() ) / 2, select[1] * 16 + 7 );
+            String currBiome = candidateBiome( world, memoryShape, l, scratch.x, scratch.z, midY );
 
             for ( ; biomeChecks < maxBiomeChecks && !biomeNames.contains( currBiome ); biomeChecks++, maxAttempts++, i++ )
             {
-                if ( shape instanceof MemoryShape ) {
-                    MemoryShape<?> memoryShape = ( MemoryShape<?> ) shape;
+                if ( memoryShape != null ) {
                     if ( defaultBiomes && biomeRecall ) {
                         memoryShape.addBadLocation( l );
                     }
-                    if ( biomeRecall && !defaultBiomes ) {
-                        List<Map.Entry<Long, Long>> biomes = new ArrayList<>();
-                        for ( String biomeName : biomeNames ) {
-                            ConcurrentSkipListMap<Long, Long> map = memoryShape.biomeLocations.get( biomeName );
-                            if ( map != null ) {
-                                biomes.addAll( map.entrySet() );
-                            }
-                        }
-                        Map.Entry<Long, Long> entry;
-                        if( biomes.size()>0 ) {
-                            int nextInt = ThreadLocalRandom.current().nextInt( biomes.size() );
-                            entry = biomes.get( nextInt );
-                            l = entry.getKey() + ThreadLocalRandom.current().nextLong( entry.getValue() );
-                        }
-                        else if( biomeRecallForced ) {
-                            new IllegalStateException( "[RTP] invalid state, biome recall enabled but biomes are not in memory - " + Arrays.toString( biomeNames.toArray()) ).printStackTrace();
-                            return new AbstractMap.SimpleEntry<>( null, i );
-                        }
-                        else l = memoryShape.rand();
-                    } else {
-                        l = memoryShape.rand();
-                    }
-
-                    select = memoryShape.locationToXZ( l );
+                    l = drawLocation( memoryShape, biomeNames, recall, biomeRecallForced );
+                    if ( l < 0 ) return new AbstractMap.SimpleEntry<>( null, i );
+                    scratch.select( memoryShape.locationToXZ( l ) );
                 } else {
-                    select = shape.select();
+                    scratch.select( shape.select() );
                 }
 
                 if ( verbose ) {
-//                if( shape instanceof MemoryShape ) selections.add( new AbstractMap.SimpleEntry<>( (long ) selections.size(), l) );
-//                else selections.add( new AbstractMap.SimpleEntry<>( (long ) select[0], ( long ) select[1]) );
-                    selections.add( new AbstractMap.SimpleEntry<>( (long ) select[0], ( long ) select[1]) );
-                }
-
-                String key = "biome="+currBiome;
-                if( verbose ) {
-                    failMap.get( FailTypes.biome ).compute( key, ( s, aLong ) -> {
-                        if ( aLong == null ) return 1L;
-                        return ++aLong;
-                    } );
+                    scratch.recordSelection();
+                    scratch.fail( FailTypes.biome, "biome=" + currBiome );
                 }
-                currBiome = world.getBiome( select[0] * 16 + 7, ( vert.minY() + vert.maxY() ) / 2, select[1] * 16 + 7 );
+                currBiome = candidateBiome( world, memoryShape, l, scratch.x, scratch.z, midY );
             }
             if( biomeChecks>=maxBiomeChecks ) break;
 
-            WorldBorder border = RTP.serverAccessor.getWorldBorder( world.name() );
-            if ( !border.isInside().apply( new RTPLocation( world, select[0] * 16, ( vert.maxY() + vert.minY() ) / 2, select[1] * 16)) ) {
-                new IllegalStateException( "worldborder check failed. region/selection is likely outside the worldborder" ).printStackTrace();
+            if ( border != null && !border.isInside().apply( new RTPLocation( world, scratch.x * 16, midY, scratch.z * 16) ) ) {
                 maxAttempts++;
-                Long worldBorderFails = failMap.get( FailTypes.worldBorder ).getOrDefault( "OUTSIDE_BORDER", 0L );
                 worldBorderFails++;
                 if ( worldBorderFails > 1000 ) {
                     new IllegalStateException( "1000 worldborder checks failed. region/selection is likely outside the worldborder" ).printStackTrace();
                     return new AbstractMap.SimpleEntry<>( null, i );
                 }
-                failMap.get( FailTypes.worldBorder ).put( "OUTSIDE_BORDER",worldBorderFails );
+                if ( verbose ) scratch.fail( FailTypes.worldBorder, "OUTSIDE_BORDER" );
                 continue;
             }
 
-            CompletableFuture<RTPChunk> cfChunk = world.getChunkAt( select[0], select[1] );
-            RTP.futures.add( cfChunk );
+            CompletableFuture<RTPChunk> cfChunk = world.getChunkAt( scratch.x, scratch.z, ChunkPriority.PREFETCH );
+            RTP.futures.register( this, cfChunk );
 
             RTPChunk chunk;
 
             try {
-                chunk = cfChunk.get();
+                chunk = SyncChunkLoads.await( cfChunk, world, scratch.x, scratch.z );
             } catch ( InterruptedException | ExecutionException e ) {
                RTP.log( Level.WARNING, e.getMessage(), e );
                 return new AbstractMap.SimpleEntry<>( null, i );
+            } catch ( CancellationException e ) {
+                //region shut down
+                return new AbstractMap.SimpleEntry<>( null, i );
             }
+            //not in yet, and this is the main thread - move on to a candidate that is
+            if ( chunk == null && !cfChunk.isDone() ) continue;
             if( chunk == null ) {
                 new IllegalStateException( "[RTP] null chunk" ).printStackTrace();
                 return null;
@@ -611,14 +626,11 @@ public class Region extends FactoryValue<RegionKeys> {
 
             location = vert.adjust( chunk );
             if ( location == null ) {
-                if ( defaultBiomes && shape instanceof MemoryShape && biomeRecall ) {
-                    ( (MemoryShape<?> ) shape ).addBadLocation( l );
-                }
-                if( verbose ) {
-                    failMap.get( FailTypes.vert ).compute( "biome=" + currBiome,
-                            ( s, aLong ) -> ( aLong==null ) ? ( 1L ) : ( ++aLong) );
+                if ( defaultBiomes && memoryShape != null && biomeRecall ) {
+                    memoryShape.addBadLocation( l );
                 }
-                chunk.unload();
+                if( verbose ) scratch.fail( FailTypes.vert, "biome=" + currBiome );
+                RTP.getInstance().chunkReleases.unload( chunk );
                 continue;
             }
 
@@ -627,141 +639,307 @@ public class Region extends FactoryValue<RegionKeys> {
             if ( !biomeNames.contains( currBiome) ) {
                 biomeChecks++;
                 maxAttempts++;
-                if( defaultBiomes && shape instanceof MemoryShape && biomeRecall ) {
-                    ( (MemoryShape<?> ) shape ).addBadLocation( l );
+                if( defaultBiomes && memoryShape != null && biomeRecall ) {
+                    memoryShape.addBadLocation( l );
                 }
-
-                if( verbose ) {
-                    failMap.get( FailTypes.biome ).compute( "biome=" + currBiome,
-                            ( s, aLong ) -> ( aLong == null ) ? 1L : ++aLong );
-                }
-                chunk.unload();
+                if( verbose ) scratch.fail( FailTypes.biome, "biome=" + currBiome );
+                location = null;
+                RTP.getInstance().chunkReleases.unload( chunk );
                 continue;
             }
 
             boolean pass = true;
 
             //todo: waterlogged check
-            RTPBlock block;
-            RTPChunk chunk1;
-            Map<List<Integer>,RTPChunk> chunks = new HashMap<>();
-            chunks.put( Arrays.asList( chunk.x(),chunk.z() ),chunk );
+            chunks.put( ChunkKey.pack( chunk.x(), chunk.z() ), chunk );
             chunk.keep( true );
             for ( int x = location.x() - safetyRadius; x < location.x() + safetyRadius && pass; x++ ) {
-                int xx = x;
-                int dx = Math.abs( xx/16 );
-                int chunkX = chunk.x();
-
-                if( xx < 0 ) {
-                    chunkX-=dx+1;
-                    if( xx%16==0 ) xx+=16*dx;
-                    else xx+=16*( dx+1 );
-                } else if( xx >= 16 ) {
-                    chunkX+=dx;
-                    xx-=16*dx;
-                }
-
                 for ( int z = location.z() - safetyRadius; z < location.z() + safetyRadius && pass; z++ ) {
-                    int zz = z;
-
-                    int dz = Math.abs( zz/16 );
-
-                    int chunkZ = chunk.z();
-
-                    if( zz < 0 ) {
-                        chunkZ-=dz+1;
-                        if( zz%16==0 ) zz+=16*dz;
-                        else zz+=16*( dz+1 );
-                    } else if( zz >= 16 ) {
-                        chunkZ+=dz;
-                        zz-=16*dz;
-                    }
-
-                    List<Integer> xz = Arrays.asList( chunkX, chunkZ );
-                    if( chunks.containsKey( xz) ) chunk1 = chunks.get( xz );
-                    else {
+                    long key = ChunkKey.ofBlock( x, z );
+                    RTPChunk chunk1 = chunks.get( key );
+                    if( chunk1 == null ) {
+                        CompletableFuture<RTPChunk> cfSafety = world.getChunkAt( x >> 4, z >> 4, ChunkPriority.PREFETCH );
                         try {
-                            chunk1 = getWorld().getChunkAt( chunkX, chunkZ ).get();
-                            chunks.put( xz,chunk1 );
-                            chunk1.keep( true );
+                            chunk1 = SyncChunkLoads.await( cfSafety, world, x >> 4, z >> 4 );
                         } catch ( InterruptedException | ExecutionException e ) {
-                           RTP.log( Level.WARNING, e.getMessage(), e );
+                            RTP.log( Level.WARNING, e.getMessage(), e );
+                        }
+                        if ( chunk1 == null && !cfSafety.isDone() ) {
+                            pass = false;
+                            continue;
+                        }
+                        if( chunk1 == null ) {
+                            chunks.forEachValue( usedChunk -> usedChunk.keep( false ) );
+                            chunks.clear();
                             return null;
                         }
+                        chunks.put( key, chunk1 );
+                        chunk1.keep( true );
                     }
 
                     for ( int y = location.y() - safetyRadius; y < location.y() + safetyRadius && pass; y++ ) {
-                        if( y>getWorld().getMaxHeight() || y<getWorld().getMinHeight() ) continue;
-                        block = chunk1.getBlockAt( xx, y, zz );
-                        String material = block.getMaterial();
-                        if ( unsafeBlocks.contains( block.getMaterial()) ) {
+                        if( y>maxHeight || y<minHeight ) continue;
+                        String material = chunk1.getBlockAt( x, y, z ).getMaterial();
+                        if ( unsafeBlocks.contains( material ) ) {
                             pass = false;
-                            if( verbose ) {
-                                String key = "material=" + material;
-                                failMap.get( FailTypes.safety ).compute( key, ( s, aLong ) -> {
-                                    if ( aLong == null ) return 1L;
-                                    return ++aLong;
-                                } );
-                            }
+                            if( verbose ) scratch.fail( FailTypes.safety, "material=" + material );
                         }
                     }
                 }
             }
-            for( RTPChunk usedChunk : chunks.values() ) usedChunk.keep( false );
+            chunks.forEachValue( usedChunk -> usedChunk.keep( false ) );
+            chunks.clear();
 
             pass &= checkGlobalRegionVerifiers( location );
 
             if ( pass ) {
-                if ( shape instanceof MemoryShape ) {
-                    if( l>0 ) ( (MemoryShape<?> ) shape ).addBiomeLocation( l, currBiome );
+                if ( memoryShape != null && l > 0 ) {
+                    memoryShape.addBiomeLocation( l, currBiome );
                 }
                 break;
-            } else {
-                if ( verbose ) failMap.get( FailTypes.misc ).compute( "location="+"("+location.x()+","+location.y()+","+location.z(),
-                        ( s, aLong ) -> ( aLong==null ) ? 1L : ++aLong );
-                if ( shape instanceof MemoryShape ) {
-                    ( (MemoryShape<?> ) shape ).addBadLocation( l );
-                }
-                location = null;
             }
-            chunk.unload();
+
+            if ( verbose ) scratch.fail( FailTypes.misc, "location="+"("+location.x()+","+location.y()+","+location.z() );
+            if ( memoryShape != null ) {
+                memoryShape.addBadLocation( l );
+            }
+            location = null;
+            RTP.getInstance().chunkReleases.unload( chunk );
         }
 
-//        if ( verbose ) {
         if ( verbose && i >= maxAttempts || i > maxAttemptsBase*maxBiomeChecksPerGen ) {
-            RTP.log( Level.INFO, "#00ff80[RTP] [" + name + "] failed to generate a location within " + maxAttempts + " tries. Adjust your configuration." );
-            for( Map.Entry<FailTypes,Map<String,Long>> mapEntry : failMap.entrySet() ) {
-                Map<String, Long> map = mapEntry.getValue();
-                String[] output = new String[map.size()];
-                int pos = 0;
-                long count = 0;
-                for( Map.Entry<String,Long> entry : map.entrySet() ) {
-                    output[pos] = "#00ff80[RTP] [" + name + "] " + " cause=" + mapEntry.getKey() + " " + entry.getKey() + " fails=" + entry.getValue();
-                    count+=entry.getValue();
-                    pos++;
-                }
-                RTP.log( Level.INFO,"#00ff80[RTP] [" + name + "] " + " cause=" + mapEntry.getKey() + " fails=" + count );
-                for( String out : output ) {
-                    RTP.log( Level.INFO,out );
+            logSelectionFailures( maxAttempts, scratch.failMap, scratch.selections, scratch.selectionCount );
+        }
+
+        i = Math.min( i, maxAttempts );
+
+        return new AbstractMap.SimpleEntry<>( location, i );
+    }
+
+    /**
+     * @param biomeNames requested biomes, or null/empty for the configured defaults
+     * @return future for the same result {@link #getLocation(Set)} would produce, completed without blocking on chunk loads
+     */
+    public CompletableFuture<Map.Entry<RTPLocation, Long>> getLocationAsync( @Nullable Set<String> biomeNames ) {
+        AsyncSelection.updateChunkLoadCap();
+        int k = fanout();
+        if ( k <= 1 ) return new AsyncSelection( this, biomeNames ).start();
+        return speculate( biomeNames, k );
+    }
+
+    /**
+     * run k selections side by side, splitting maxAttempts between them, and take the first valid location
+     * <br>the others stop at their next attempt. Any that find a location anyway are recycled into the public cache,
+     * if it's short, and let go of otherwise.
+     */
+    protected CompletableFuture<Map.Entry<RTPLocation, Long>> speculate( @Nullable Set<String> biomeNames, int k ) {
+        boolean custom = biomeNames != null && !biomeNames.isEmpty();
+        CompletableFuture<Map.Entry<RTPLocation, Long>> res = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean( false );
+        AtomicInteger remaining = new AtomicInteger( k );
+        AtomicLong attempts = new AtomicLong();
+        for ( int j = 0; j < k; j++ ) {
+            new AsyncSelection( this, biomeNames, settled, k ).start().whenComplete( ( pair, throwable ) -> {
+                if ( throwable != null ) RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                else if ( pair != null ) {
+                    long total = attempts.addAndGet( pair.getValue() );
+                    if ( pair.getKey() != null ) {
+                        if ( settled.compareAndSet( false, true ) ) res.complete( new AbstractMap.SimpleEntry<>( pair.getKey(), total ) );
+                        else if ( !custom ) {
+                            //only as far as the cache is short, so spares can't crowd past its cap
+                            if ( locationQueue.size() + cacheInFlight.get() < cacheCap() ) cache( pair, null );
+                            else removeChunks( pair.getKey() );
+                        } else {
+                            //a spare for a pooled biome filter is as good as a pool refill
+                            BiomePools.Pool pool = biomePools.wanting( biomeNames, maxBiomePools(), biomePoolCap() );
+                            if ( pool != null ) cacheInPool( pair, pool );
+                            else removeChunks( pair.getKey() );
+                        }
+                    }
                 }
+                if ( remaining.decrementAndGet() == 0 ) res.complete( new AbstractMap.SimpleEntry<>( null, attempts.get() ) );
+            } );
+        }
+        return res;
+    }
+
+    protected int maxBiomePools() {
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        return perf.getNumber( PerformanceKeys.biomePools, 3 ).intValue();
+    }
+
+    protected long biomePoolCap() {
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        return perf.getNumber( PerformanceKeys.biomePoolCap, 5L ).longValue();
+    }
+
+    /**
+     * queue cache tasks for the most requested biome filters, up to what their recent demand calls for
+     */
+    protected void refillBiomePools() {
+        int maxPools = maxBiomePools();
+        if ( maxPools <= 0 ) return;
+        long cap = biomePoolCap();
+        for ( BiomePools.Pool pool : biomePools.hot( maxPools ) ) {
+            long target = pool.target( cap );
+            while ( pool.queue.size() + pool.inFlight.get() < target ) {
+                pool.inFlight.incrementAndGet();
+                cachePipeline.add( new Cache( pool ) );
             }
+        }
+    }
 
-            StringBuilder selectionsStr = new StringBuilder();
-            boolean first = true;
-            selectionsStr = selectionsStr.append( "{" );
-            for( Map.Entry<Long, Long> entry : selections ) {
-                if( !first ) {
-                    selectionsStr = selectionsStr.append( "," );
-                }
-                selectionsStr = selectionsStr.append( "(" ).append( entry.getKey() ).append( "," ).append( entry.getValue() ).append( ")" );
+    /**
+     * @return locations the hot biome pools are short of their targets, counting refills already underway
+     */
+    long poolDeficit() {
+        int maxPools = maxBiomePools();
+        if ( maxPools <= 0 ) return 0;
+        long cap = biomePoolCap();
+        long res = 0;
+        for ( BiomePools.Pool pool : biomePools.hot( maxPools ) ) {
+            res += Math.max( 0, pool.target( cap ) - pool.queue.size() - pool.inFlight.get() );
+        }
+        return res;
+    }
+
+    /**
+     * @return number of candidates to evaluate at once, from the configured fan-out, recent success rate and free chunk load slots
+     */
+    protected int fanout() {
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        int max = perf.getNumber( PerformanceKeys.fanout, 1 ).intValue();
+        if ( max <= 1 ) return 1;
+
+        double rate = candidateSuccessRate;
+        int k = ( rate > 0 ) ? ( int ) Math.ceil( 1 / rate ) : max;
+        k = Math.min( k, max );
+        return Math.max( 1, Math.min( k, AsyncSelection.chunkLoads.available() ) );
+    }
+
+    /**
+     * fold a finished selection into the candidate success rate
+     */
+    protected void recordSelection( boolean success, long attempts ) {
+        double sample = success ? 1.0 / Math.max( attempts, 1 ) : 0.0;
+        synchronized ( this ) {
+            candidateSuccessRate = candidateSuccessRate * 0.9 + sample * 0.1;
+        }
+    }
+
+    /**
+     * @return biomes allowed by the safety config's whitelist/blacklist for this region's world
+     */
+    protected Set<String> defaultBiomeNames() {
+        ConfigParser<SafetyKeys> safety = ( ConfigParser<SafetyKeys> ) RTP.configs.getParser( SafetyKeys.class );
+        Object o = safety.getConfigValue( SafetyKeys.biomeWhitelist, false );
+        boolean whitelist = ( o instanceof Boolean ) ? ( Boolean ) o : Boolean.parseBoolean( o.toString() );
+
+        o = safety.getConfigValue( SafetyKeys.biomes, null );
+        List<String> biomeList = ( o instanceof List ) ? ( (List<?> ) o ).stream().map( Object::toString ).collect( Collectors.toList() ) : null;
+        Set<String> biomeSet = ( biomeList == null )
+                ? new HashSet<>()
+                : biomeList.stream().map( String::toUpperCase ).collect( Collectors.toSet() );
+        if ( whitelist ) return biomeSet;
+
+        Set<String> biomes = RTP.serverAccessor.getBiomes( getWorld() );
+        Set<String> set = new HashSet<>();
+        for ( String s : biomes ) {
+            if ( !biomeSet.contains( s.toUpperCase()) ) {
+                set.add( s );
             }
-            selectionsStr = selectionsStr.append( "}" );
-            RTP.log( Level.INFO, "#0f0080[RTP] [" + name + "] selections: " + selectionsStr );
         }
+        return set;
+    }
 
-        i = Math.min( i, maxAttempts );
+    /**
+     * biome at the center of a candidate chunk, predicted from the generator where possible so nothing is loaded
+     * <br>predictions are remembered in memory shapes, so biome recall can skip known-wrong areas
+     */
+    protected String candidateBiome( RTPWorld world, @Nullable MemoryShape<?> memoryShape, long l, int chunkX, int chunkZ, int y ) {
+        int x = chunkX * 16 + 7;
+        int z = chunkZ * 16 + 7;
+        String biome = world.predictBiome( x, y, z );
+        if ( biome == null ) return world.getBiome( x, y, z );
+        if ( memoryShape != null && l >= 0 ) memoryShape.addBiomeLocation( l, biome );
+        return biome;
+    }
 
-        return new AbstractMap.SimpleEntry<>( location, i );
+    /**
+     * non-blocking {@link #candidateBiome}, waiting on the chunk load only when the biome can't be predicted
+     *
+     * @param load background load of the candidate chunk, under the caller's own cap
+     */
+    protected CompletableFuture<String> candidateBiomeAsync( RTPWorld world, @Nullable MemoryShape<?> memoryShape, long l, int chunkX, int chunkZ, int y,
+                                                             Supplier<CompletableFuture<RTPChunk>> load ) {
+        int x = chunkX * 16 + 7;
+        int z = chunkZ * 16 + 7;
+        String biome = world.predictBiome( x, y, z );
+        if ( biome == null ) return load.get().thenCompose( chunk -> world.getBiomeAsync( x, y, z, ChunkPriority.PREFETCH ) );
+        if ( memoryShape != null && l >= 0 ) memoryShape.addBiomeLocation( l, biome );
+        return CompletableFuture.completedFuture( biome );
+    }
+
+    /**
+     * draw a location from a memory shape, using remembered biome locations when recall is requested
+     *
+     * @return location index, or -1 if recall is forced and none of the biomes are in memory
+     */
+    protected long drawLocation( MemoryShape<?> memoryShape, Set<String> biomeNames, boolean recall, boolean recallForced ) {
+        if ( !recall ) return memoryShape.rand();
+
+        List<Map.Entry<Long, Long>> biomes = new ArrayList<>();
+        for ( String biomeName : biomeNames ) {
+            ConcurrentSkipListMap<Long, Long> map = memoryShape.biomeLocations.get( biomeName );
+            if ( map != null ) {
+                biomes.addAll( map.entrySet() );
+            }
+        }
+        if( biomes.size()>0 ) {
+            int nextInt = ThreadLocalRandom.current().nextInt( biomes.size() );
+            Map.Entry<Long, Long> entry = biomes.get( nextInt );
+            return entry.getKey() + ThreadLocalRandom.current().nextLong( entry.getValue() );
+        }
+        if( recallForced ) {
+            new IllegalStateException( "[RTP] invalid state, biome recall enabled but biomes are not in memory - " + Arrays.toString( biomeNames.toArray()) ).printStackTrace();
+            return -1;
+        }
+        return memoryShape.rand();
+    }
+
+    /**
+     * @param selections chunk x/z pairs, interleaved
+     */
+    protected void logSelectionFailures( long maxAttempts, Map<FailTypes,Map<String,Long>> failMap, long[] selections, int selectionCount ) {
+        RTP.log( Level.INFO, "#00ff80[RTP] [" + name + "] failed to generate a location within " + maxAttempts + " tries. Adjust your configuration." );
+        for( Map.Entry<FailTypes,Map<String,Long>> mapEntry : failMap.entrySet() ) {
+            Map<String, Long> map = mapEntry.getValue();
+            String[] output = new String[map.size()];
+            int pos = 0;
+            long count = 0;
+            for( Map.Entry<String,Long> entry : map.entrySet() ) {
+                output[pos] = "#00ff80[RTP] [" + name + "] " + " cause=" + mapEntry.getKey() + " " + entry.getKey() + " fails=" + entry.getValue();
+                count+=entry.getValue();
+                pos++;
+            }
+            RTP.log( Level.INFO,"#00ff80[RTP] [" + name + "] " + " cause=" + mapEntry.getKey() + " fails=" + count );
+            for( String out : output ) {
+                RTP.log( Level.INFO,out );
+            }
+        }
+
+        StringBuilder selectionsStr = new StringBuilder();
+        boolean first = true;
+        selectionsStr = selectionsStr.append( "{" );
+        for( int j = 0; j + 1 < selectionCount; j += 2 ) {
+            if( !first ) {
+                selectionsStr = selectionsStr.append( "," );
+            }
+            first = false;
+            selectionsStr = selectionsStr.append( "(" ).append( selections[j] ).append( "," ).append( selections[j + 1] ).append( ")" );
+        }
+        selectionsStr = selectionsStr.append( "}" );
+        RTP.log( Level.INFO, "#0f0080[RTP] [" + name + "] selections: " + selectionsStr );
     }
 
     public void shutDown() {
@@ -777,11 +955,13 @@ public class Region extends FactoryValue<RegionKeys> {
 
         cachePipeline.stop();
         cachePipeline.clear();
+        RTP.futures.cancel( this );
 
         playerQueue.clear();
         perPlayerLocationQueue.clear();
         fastLocations.clear();
         locationQueue.clear();
+        biomePools.clear( this::removeChunks );
         locAssChunks.forEach( (rtpLocation, chunkSet ) -> chunkSet.keep( false) );
         locAssChunks.clear();
     }
@@ -795,6 +975,12 @@ public class Region extends FactoryValue<RegionKeys> {
         clone.playerQueue = new ConcurrentLinkedQueue<>();
         clone.perPlayerLocationQueue = new ConcurrentHashMap<>();
         clone.fastLocations = new ConcurrentHashMap<>();
+        clone.cacheInFlight = new AtomicLong();
+        clone.biomePools = new BiomePools();
+        clone.requestRate = new RateEstimator( BiomePools.DEMAND_HALF_LIFE );
+        clone.cacheSizer = new CacheSizer();
+        clone.shapeVersion = new AtomicLong();
+        clone.resolvedShape = null;
         return clone;
     }
 
@@ -826,19 +1012,37 @@ public class Region extends FactoryValue<RegionKeys> {
     }
 
     public ChunkSet chunks( RTPLocation location, long radius ) {
+        return chunks( location, radius, ChunkPriority.PREFETCH );
+    }
+
+    /**
+     * @param priority class of work the chunks are loaded for - asking again at a higher class moves pending loads up
+     */
+    public ChunkSet chunks( RTPLocation location, long radius, ChunkPriority priority ) {
         long sz = ( radius * 2 + 1 ) * ( radius * 2 + 1 );
-        if ( locAssChunks.containsKey( location) ) {
-            ChunkSet chunkSet = locAssChunks.get( location );
-            if ( chunkSet.chunks.size() >= sz ) return chunkSet;
-            chunkSet.keep( false );
-            locAssChunks.remove( location );
-        }
 
         int cx = location.x();
         int cz = location.z();
         cx = ( cx > 0 ) ? cx / 16 : cx / 16 - 1;
         cz = ( cz > 0 ) ? cz / 16 : cz / 16 - 1;
 
+        if ( locAssChunks.containsKey( location) ) {
+            ChunkSet chunkSet = locAssChunks.get( location );
+            //a set with failed chunks is rebuilt, which asks for those chunks again
+            if ( chunkSet.chunks.size() >= sz && chunkSet.failed() == 0 ) {
+                if ( priority != ChunkPriority.PREFETCH && !chunkSet.complete.isDone() ) {
+                    for ( long i = -radius; i <= radius; i++ ) {
+                        for ( long j = -radius; j <= radius; j++ ) {
+                            location.world().getChunkAt( (int ) ( cx + i ), ( int ) ( cz + j), priority );
+                        }
+                    }
+                }
+                return chunkSet;
+            }
+            chunkSet.keep( false );
+            locAssChunks.remove( location );
+        }
+
         List<CompletableFuture<RTPChunk>> chunks = new ArrayList<>();
 
         Shape<?> shape = getShape();
@@ -852,7 +1056,7 @@ public class Region extends FactoryValue<RegionKeys> {
 
         for ( long i = -radius; i <= radius; i++ ) {
             for ( long j = -radius; j <= radius; j++ ) {
-                CompletableFuture<RTPChunk> cfChunk = location.world().getChunkAt( (int ) ( cx + i ), ( int ) ( cz + j) );
+                CompletableFuture<RTPChunk> cfChunk = location.world().getChunkAt( (int ) ( cx + i ), ( int ) ( cz + j), priority );
                 chunks.add( cfChunk );
             }
         }
@@ -863,10 +1067,244 @@ public class Region extends FactoryValue<RegionKeys> {
         return chunkSet;
     }
 
+    /**
+     * keep the chunks around a selected location, then queue it once they're loaded
+     *
+     * @param playerId player to reserve the location for, or null for the public cache
+     */
+    public void cache( Map.Entry<RTPLocation, Long> pair, @Nullable UUID playerId ) {
+        cache( pair, playerId, 0 );
+    }
+
+    /**
+     * @param started when the refill for this location started, to time public refills, or 0 to skip timing it
+     */
+    private void cache( Map.Entry<RTPLocation, Long> pair, @Nullable UUID playerId, long started ) {
+        RTPLocation location = pair.getKey();
+
+        //out of kept-chunk budget - the public cache can take it as coordinates only
+        if ( playerId == null && ChunkBudget.exhausted() ) {
+            if ( started != 0 ) cacheSizer.recordRefill( System.nanoTime() - started );
+            locationQueue.add( new CachedLocation( pair ) );
+            return;
+        }
+
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        long radius = perf.getNumber( PerformanceKeys.viewDistanceSelect, 0L ).longValue();
+
+        ChunkSet chunkSet = chunks( location, radius );
+        if ( chunkSet == null ) return;
+
+        chunkSet.whenComplete( aBoolean -> {
+            if ( aBoolean ) {
+                if ( playerId == null ) {
+                    if ( started != 0 ) cacheSizer.recordRefill( System.nanoTime() - started );
+                    locationQueue.add( new CachedLocation( pair ) );
+                    locAssChunks.put( location, chunkSet );
+                } else if ( fastLocations.containsKey( playerId ) && !fastLocations.get( playerId ).isDone() ) {
+                    fastLocations.get( playerId ).complete( pair );
+                } else {
+                    perPlayerLocationQueue.putIfAbsent( playerId, new ConcurrentLinkedQueue<>() );
+                    perPlayerLocationQueue.get( playerId ).add( pair );
+                }
+            } else {
+                chunkSet.keep( false );
+                locAssChunks.remove( location );
+            }
+        } );
+    }
+
+    /**
+     * hold a pool location's chunks and add it to its biome pool once they're ready
+     */
+    protected void cacheInPool( Map.Entry<RTPLocation, Long> pair, BiomePools.Pool pool ) {
+        RTPLocation location = pair.getKey();
+
+        if ( ChunkBudget.exhausted() ) {
+            pool.queue.add( pair );
+            return;
+        }
+
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        long radius = perf.getNumber( PerformanceKeys.viewDistanceSelect, 0L ).longValue();
+
+        ChunkSet chunkSet = chunks( location, radius );
+        if ( chunkSet == null ) return;
+
+        chunkSet.whenComplete( aBoolean -> {
+            if ( aBoolean ) {
+                pool.queue.add( pair );
+                locAssChunks.put( location, chunkSet );
+            } else {
+                chunkSet.keep( false );
+                locAssChunks.remove( location );
+            }
+        } );
+    }
+
+    /**
+     * @return chunks currently kept for this region's cached locations
+     */
+    public long keptChunks() {
+        long res = 0;
+        for ( ChunkSet chunkSet : locAssChunks.values() ) res += chunkSet.chunks.size();
+        return res;
+    }
+
+    /**
+     * let go of the chunks for the public cache's last-in-line locations, keeping the locations as coordinates only
+     *
+     * @param excess chunks to let go of
+     * @return chunks actually let go of
+     */
+    long downgrade( long excess ) {
+        List<Map.Entry<RTPLocation, Long>> queued = new ArrayList<>( locationQueue );
+        long freed = 0;
+        for ( int i = queued.size() - 1; i >= 0 && freed < excess; i-- ) {
+            RTPLocation location = queued.get( i ).getKey();
+            if ( location == null ) continue;
+            ChunkSet chunkSet = locAssChunks.get( location );
+            if ( chunkSet == null ) continue;
+            freed += chunkSet.chunks.size();
+            removeChunks( location );
+        }
+        return freed;
+    }
+
+    /**
+     * @return the next public cache location that still checks out, letting go of any that don't, or null once empty
+     */
+    @Nullable
+    protected Map.Entry<RTPLocation, Long> pollValid() {
+        for ( Map.Entry<RTPLocation, Long> pair; ( pair = locationQueue.poll() ) != null; ) {
+            RTPLocation location = pair.getKey();
+            if ( location == null || revalidate( location ) ) return pair;
+            removeChunks( location );
+        }
+        return null;
+    }
+
+    /**
+     * cheap re-check of a cached location before it's handed out - the unsafe blocks, the vertical adjustor's placement
+     * test and the region verifiers, not a full selection
+     * <br>the blocks are only checked if the location's chunk is already loaded, and are otherwise left to the teleport
+     */
+    protected boolean revalidate( RTPLocation location ) {
+        return revalidate( location, loadedChunk( location ) );
+    }
+
+    /**
+     * @param chunk the location's chunk, or null to check the verifiers only
+     */
+    protected boolean revalidate( RTPLocation location, @Nullable RTPChunk chunk ) {
+        if ( chunk != null ) {
+            int x = location.x();
+            int y = location.y();
+            int z = location.z();
+            RTPBlock ground = chunk.getBlockAt( x, y - 1, z );
+            RTPBlock feet = chunk.getBlockAt( x, y, z );
+            RTPBlock head = chunk.getBlockAt( x, y + 1, z );
+            ConfigParser<SafetyKeys> safety = ( ConfigParser<SafetyKeys> ) RTP.configs.getParser( SafetyKeys.class );
+            Object o = safety.getConfigValue( SafetyKeys.unsafeBlocks, new ArrayList<>() );
+            if ( o instanceof Collection ) {
+                for ( Object material : ( Collection<?> ) o ) {
+                    String name = material.toString().toUpperCase();
+                    if ( name.equals( ground.getMaterial() ) || name.equals( feet.getMaterial() ) || name.equals( head.getMaterial() ) )
+                        return false;
+                }
+            }
+
+            VerticalAdjustor<?> vert = getVert();
+            if ( vert != null && !vert.testPlacement( feet ) ) return false;
+        }
+        return checkGlobalRegionVerifiers( location );
+    }
+
+    /**
+     * @return the chunk holding this cached location, if its chunk set has it loaded already
+     */
+    @Nullable
+    private RTPChunk loadedChunk( RTPLocation location ) {
+        ChunkSet chunkSet = locAssChunks.get( location );
+        if ( chunkSet == null ) return null;
+        int cx = location.x() >> 4;
+        int cz = location.z() >> 4;
+        for ( CompletableFuture<RTPChunk> future : chunkSet.chunks ) {
+            if ( !future.isDone() || future.isCompletedExceptionally() ) continue;
+            RTPChunk chunk = future.getNow( null );
+            if ( chunk != null && chunk.x() == cx && chunk.z() == cz ) return chunk;
+        }
+        return null;
+    }
+
+    /**
+     * re-check public cache locations that haven't been checked within cacheTTL, keeping the ones that pass and
+     * dropping the rest, for the usual refill to replace
+     * <br>a location without its chunk loaded is queued on the cache pipeline to load it at prefetch priority first
+     */
+    void refreshCache() {
+        if ( RTP.configs == null ) return;
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( perf == null ) return;
+        long ttl = TimeUnit.SECONDS.toMillis( perf.getNumber( PerformanceKeys.cacheTTL, 300L ).longValue() );
+        if ( ttl <= 0 ) return;
+
+        long now = System.currentTimeMillis();
+        for ( Map.Entry<RTPLocation, Long> pair : locationQueue ) {
+            if ( !( pair instanceof CachedLocation ) ) continue;
+            CachedLocation cached = ( CachedLocation ) pair;
+            if ( now - cached.checkedAt() < ttl ) continue;
+            RTPLocation location = cached.getKey();
+            if ( location == null ) continue;
+            RTPChunk chunk = loadedChunk( location );
+            if ( chunk == null ) {
+                if ( cached.claimRecheck() ) cachePipeline.add( new Recheck( cached ) );
+            }
+            else if ( revalidate( location, chunk ) ) cached.touch( now );
+            else if ( locationQueue.remove( cached ) ) removeChunks( location );
+        }
+    }
+
+    /**
+     * let go of the chunks for public cache locations past the live target, keeping the locations as coordinates only
+     */
+    void trimCache( long target ) {
+        List<Map.Entry<RTPLocation, Long>> queued = new ArrayList<>( locationQueue );
+        for ( int i = queued.size() - 1; i >= Math.max( target, 0 ); i-- ) {
+            RTPLocation location = queued.get( i ).getKey();
+            if ( location != null ) removeChunks( location );
+        }
+    }
+
+    /**
+     * @return locations to keep in the public cache - the region's cacheCap, or its live target when auto-sizing is on
+     */
+    public long cacheCap() {
+        long cacheCap = getNumber( RegionKeys.cacheCap, 10L ).longValue();
+        //0 still turns the cache off
+        if ( cacheCap <= 0 || !cacheAutoSize() ) return cacheCap;
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        double safety = perf.getNumber( PerformanceKeys.cacheSafetyFactor, 2.0 ).doubleValue();
+        long min = Math.max( 0, perf.getNumber( PerformanceKeys.cacheMin, 2L ).longValue() );
+        long max = Math.max( min, perf.getNumber( PerformanceKeys.cacheMax, 50L ).longValue() );
+        return cacheSizer.target( safety, min, max, cacheCap );
+    }
+
+    public CacheSizer cacheSizer() {
+        return cacheSizer;
+    }
+
+    private static boolean cacheAutoSize() {
+        if ( RTP.configs == null ) return false;
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( perf == null ) return false;
+        return Boolean.parseBoolean( perf.getConfigValue( PerformanceKeys.cacheAutoSize, false ).toString() );
+    }
+
     public void removeChunks( RTPLocation location ) {
         if ( !locAssChunks.containsKey( location) ) return;
         ChunkSet chunkSet = locAssChunks.get( location );
-        chunkSet.keep( false );
+        chunkSet.release();
         locAssChunks.remove( location );
     }
 
@@ -903,7 +1341,61 @@ public class Region extends FactoryValue<RegionKeys> {
         return res;
     }
 
+    /**
+     * @return this region's shape, resolved once and reused until {@link #invalidateShape()} or a reload
+     * <br>or for a few seconds at most, if it comes from the world border
+     */
     public Shape<?> getShape() {
+        ResolvedShape resolved = resolvedShape;
+        long epoch = shapeEpoch.get();
+        long version = shapeVersion.get();
+        long now = System.nanoTime();
+        if ( resolved != null && resolved.epoch == epoch && resolved.version == version
+                && ( !resolved.fromBorder || now - resolved.resolvedAt < BORDER_SHAPE_TTL ) ) return resolved.shape;
+
+        //stamps were read before resolving, so an invalidation that lands mid-resolve still forces the next call to redo it
+        Shape<?> shape = resolveShape();
+        resolvedShape = new ResolvedShape( shape, epoch, version, worldBorderOverride(), now );
+        return shape;
+    }
+
+    private boolean worldBorderOverride() {
+        return Boolean.parseBoolean( String.valueOf( data.getOrDefault( RegionKeys.worldBorderOverride, false ) ) );
+    }
+
+    /**
+     * drop this region's resolved shape, e.g. after its world border moved
+     */
+    public void invalidateShape() {
+        shapeVersion.incrementAndGet();
+    }
+
+    /**
+     * drop every region's resolved shape
+     */
+    public static void invalidateShapes() {
+        shapeEpoch.incrementAndGet();
+    }
+
+    @Override
+    public void set( @NotNull RegionKeys key, @NotNull Object value ) throws IllegalArgumentException {
+        super.set( key, value );
+        invalidateShape();
+    }
+
+    @Override
+    public void setData( final EnumMap<? extends Enum<?>, ?> data ) throws IllegalArgumentException {
+        super.setData( data );
+        invalidateShape();
+    }
+
+    @Override
+    public void setData( final Map<String, Object> data ) throws IllegalArgumentException {
+        super.setData( data );
+        invalidateShape();
+    }
+
+    protected Shape<?> resolveShape() {
         boolean wbo = false;
         Object o = data.getOrDefault( RegionKeys.worldBorderOverride, false );
         if ( o instanceof Boolean ) wbo = ( Boolean ) o;
@@ -954,6 +1446,7 @@ public class Region extends FactoryValue<RegionKeys> {
                 perPlayerLocationQueue.clear();
                 for (Map.Entry<RTPLocation, Long> entry : locationQueue) removeChunks(entry.getKey());
                 locationQueue.clear();
+                biomePools.clear( this::removeChunks );
             }
         }
         return shape;
@@ -1011,55 +1504,122 @@ public class Region extends FactoryValue<RegionKeys> {
         return savedWorld;
     }
 
+    private static final class ResolvedShape {
+        private final Shape<?> shape;
+        private final long epoch;
+        private final long version;
+        private final boolean fromBorder;
+        private final long resolvedAt;
+
+        private ResolvedShape( Shape<?> shape, long epoch, long version, boolean fromBorder, long resolvedAt ) {
+            this.shape = shape;
+            this.epoch = epoch;
+            this.version = version;
+            this.fromBorder = fromBorder;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
     //localized generic task for
-    protected class Cache extends RTPRunnable {
+    protected class Cache extends RTPRunnable implements RTPPrioritized {
         private final UUID playerId;
+        @Nullable
+        private final BiomePools.Pool pool;
 
         public Cache() {
             playerId = null;
+            pool = null;
         }
 
         public Cache( UUID playerId ) {
             this.playerId = playerId;
+            pool = null;
+        }
+
+        /**
+         * refill a biome pool, whose in-flight count was raised when this was queued
+         */
+        Cache( BiomePools.Pool pool ) {
+            playerId = null;
+            this.pool = pool;
+        }
+
+        /**
+         * a waiting player first, then the public queue, then biome pools
+         */
+        @Override
+        public int getPriority() {
+            if ( playerId != null ) return 2;
+            return ( pool == null ) ? 1 : 0;
         }
 
         @Override
         public void run() {
-            long cacheCap = getNumber( RegionKeys.cacheCap, 10L ).longValue();
-            cacheCap = Math.max( cacheCap, playerQueue.size() );
-            Map.Entry<RTPLocation, Long> pair = getLocation( null );
-            if ( pair != null ) {
-                RTPLocation location = pair.getKey();
-                if ( location == null ) {
-                    if ( cachePipeline.size() + locationQueue.size() < cacheCap + playerQueue.size() )
-                        cachePipeline.add( new Cache() );
-                    return;
+            if ( pool != null ) {
+                getLocationAsync( pool.biomes ).whenComplete( ( pair, throwable ) -> {
+                    try {
+                        if ( throwable != null ) RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                        else if ( pair != null && pair.getKey() != null ) cacheInPool( pair, pool );
+                    } finally {
+                        pool.inFlight.decrementAndGet();
+                    }
+                } );
+                return;
+            }
+
+            cacheInFlight.incrementAndGet();
+            long started = System.nanoTime();
+            getLocationAsync( null ).whenComplete( ( pair, throwable ) -> {
+                try {
+                    if ( throwable != null ) RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                    else if ( pair != null && pair.getKey() != null ) cache( pair, playerId, started );
+                } finally {
+                    cacheInFlight.decrementAndGet();
                 }
 
-                ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
-                long radius = perf.getNumber( PerformanceKeys.viewDistanceSelect, 0L ).longValue();
+                long cacheCap = Math.max( cacheCap(), playerQueue.size() );
+                if ( cachePipeline.size() + locationQueue.size() + cacheInFlight.get() < cacheCap + playerQueue.size() )
+                    cachePipeline.add( new Cache() );
+            } );
+        }
+    }
 
-                ChunkSet chunkSet = chunks( location, radius );
+    /**
+     * re-check a stale public cache location whose chunk was let go, once the chunk is loaded again
+     */
+    protected class Recheck extends RTPRunnable implements RTPPrioritized {
+        private final CachedLocation cached;
 
-                chunkSet.whenComplete( aBoolean -> {
-                    if ( aBoolean ) {
-                        if ( playerId == null ) {
-                            locationQueue.add( pair );
-                            locAssChunks.put( location, chunkSet );
-                        } else if ( fastLocations.containsKey( playerId ) && !fastLocations.get( playerId ).isDone() ) {
-                            fastLocations.get( playerId ).complete( pair );
-                        } else {
-                            perPlayerLocationQueue.putIfAbsent( playerId, new ConcurrentLinkedQueue<>() );
-                            perPlayerLocationQueue.get( playerId ).add( pair );
-                        }
-                    } else {
-                        chunkSet.keep( false );
-                        locAssChunks.remove( location );
-                    }
-                } );
-            }
-            if ( cachePipeline.size() + locationQueue.size() < cacheCap + playerQueue.size() )
-                cachePipeline.add( new Cache() );
+        Recheck( CachedLocation cached ) {
+            this.cached = cached;
+        }
+
+        /**
+         * behind every refill
+         */
+        @Override
+        public int getPriority() {
+            return -1;
+        }
+
+        @Override
+        public void run() {
+            RTPLocation location = cached.getKey();
+            CompletableFuture<RTPChunk> cfChunk = location.world().getChunkAt( location.x() >> 4, location.z() >> 4, ChunkPriority.PREFETCH );
+            RTP.futures.register( Region.this, cfChunk );
+            cfChunk.whenComplete( ( chunk, throwable ) -> {
+                try {
+                    if ( throwable == null && chunk != null && revalidate( location, chunk ) )
+                        cached.touch( System.currentTimeMillis() );
+                    else if ( locationQueue.remove( cached ) ) removeChunks( location );
+                } catch ( Throwable t ) {
+                    RTP.log( Level.WARNING, t.getMessage(), t );
+                } finally {
+                    cached.recheckDone();
+                    //only if it was loaded just for this - a chunk set still loading for the entry keeps it
+                    if ( chunk != null && locAssChunks.get( location ) == null ) RTP.getInstance().chunkReleases.unload( chunk );
+                }
+            } );
         }
     }
 
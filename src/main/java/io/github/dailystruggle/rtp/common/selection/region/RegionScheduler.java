@@ -0,0 +1,122 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.selection.SelectionAPI;
+import io.github.dailystruggle.rtp.common.tasks.BlockingStage;
+import io.github.dailystruggle.rtp.common.tasks.StageExecutor;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * decides which regions run each tick, and runs them side by side on the region stage's workers
+ * <br>a region's share of runs follows its weight - players waiting on it, locations missing from its cache, and how often
+ * it's been asked for lately. a region with players waiting is served every tick, one that's only refilling
+ * waits out the configured period between runs, and one with nothing to do isn't run at all
+ */
+public final class RegionScheduler {
+    /**
+     * weight of each waiting player against one missing cached location
+     */
+    static final double QUEUE_WEIGHT = 4;
+
+    private static final class State {
+        private final AtomicBoolean busy = new AtomicBoolean( false );
+        private double credit = 0;
+        private long lastRun = Long.MIN_VALUE / 2;
+    }
+
+    private static final Map<Region, State> states = new IdentityHashMap<>();
+    private static long tick = 0;
+
+    private RegionScheduler() {
+
+    }
+
+    /**
+     * @return how much this region wants to run, 0 if it has nothing to do
+     */
+    static double weight( Region region ) {
+        long cacheCap = region.cacheCap();
+        long deficit = Math.max( 0, cacheCap - region.locationQueue.size() - region.cacheInFlight.get() )
+                + region.poolDeficit();
+        long waiting = region.playerQueue.size() + region.miscPipeline.size();
+        if ( deficit == 0 && waiting == 0 && region.cachePipeline.size() == 0 ) return 0;
+        return QUEUE_WEIGHT * waiting + deficit + region.requestRate.rate();
+    }
+
+    /**
+     * start this tick's region runs
+     *
+     * @param availableTime time each region may spend, in nanoseconds
+     * @param period        ticks a region that's only refilling its cache waits between runs
+     */
+    public static void execute( long availableTime, long period ) {
+        SelectionAPI selectionAPI = RTP.selectionAPI;
+        if ( selectionAPI == null ) return;
+        StageExecutor executor = BlockingStage.REGIONS.executor();
+        int limit = executor.limit();
+        int slots = ( limit <= 0 ) ? Integer.MAX_VALUE : limit - executor.active() - executor.queued();
+        if ( slots <= 0 ) return;
+
+        List<Region> chosen = select( selectionAPI.permRegionLookup.values(), slots, period );
+        for ( Region region : chosen ) {
+            State state;
+            synchronized ( RegionScheduler.class ) {
+                state = states.get( region );
+            }
+            //a rejected run never starts, so nothing else would free the region for the next tick
+            executor.execute( () -> {
+                try {
+                    region.execute( availableTime );
+                } finally {
+                    state.busy.set( false );
+                }
+            }, () -> state.busy.set( false ) );
+        }
+    }
+
+    /**
+     * weighted round robin over the regions that can run this tick, taking up to the given number
+     * <br>each candidate's credit grows by its weight every tick, and the picks split the candidates' total weight
+     * between them as their cost, so over time each region is picked in proportion to its weight
+     */
+    static synchronized List<Region> select( Collection<Region> regions, int slots, long period ) {
+        tick++;
+        Set<Region> present = Collections.newSetFromMap( new IdentityHashMap<>() );
+        present.addAll( regions );
+        states.keySet().retainAll( present );
+
+        List<Region> candidates = new ArrayList<>();
+        double totalWeight = 0;
+        for ( Region region : present ) {
+            State state = states.computeIfAbsent( region, r -> new State() );
+            if ( state.busy.get() ) continue;
+
+            double weight = weight( region );
+            if ( weight <= 0 ) {
+                state.credit = 0;
+                continue;
+            }
+            boolean urgent = region.playerQueue.size() > 0 || region.miscPipeline.size() > 0;
+            if ( !urgent && tick - state.lastRun < period ) continue;
+
+            state.credit += weight;
+            totalWeight += weight;
+            candidates.add( region );
+        }
+        if ( candidates.isEmpty() ) return Collections.emptyList();
+
+        candidates.sort( Comparator.comparingDouble( region -> -states.get( region ).credit ) );
+        List<Region> chosen = candidates.subList( 0, Math.min( slots, candidates.size() ) );
+        //everyone fits, so nobody is owed anything
+        double cost = ( chosen.size() == candidates.size() ) ? Double.NaN : totalWeight / chosen.size();
+        for ( Region region : chosen ) {
+            State state = states.get( region );
+            state.credit = Double.isNaN( cost ) ? 0 : state.credit - cost;
+            state.lastRun = tick;
+            state.busy.set( true );
+        }
+        return new ArrayList<>( chosen );
+    }
+}
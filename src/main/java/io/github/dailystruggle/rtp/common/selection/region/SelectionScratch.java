@@ -0,0 +1,72 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * working state for one selection, reset and reused instead of reallocated per attempt
+ * <br>blocking selections borrow the calling thread's instance, async selections own one each
+ */
+final class SelectionScratch {
+    private static final ThreadLocal<SelectionScratch> local = ThreadLocal.withInitial( SelectionScratch::new );
+
+    /**
+     * failure counts by cause, only filled when selection_failure logging is on
+     */
+    final Map<Region.FailTypes, Map<String, Long>> failMap = new EnumMap<>( Region.FailTypes.class );
+
+    /**
+     * chunks held for the current candidate's safety check, by packed chunk key
+     */
+    final LongObjectHashMap<RTPChunk> chunks = new LongObjectHashMap<>( 16 );
+
+    /**
+     * selected chunk x/z pairs, interleaved, only filled when selection_failure logging is on
+     */
+    long[] selections = new long[64];
+    int selectionCount = 0;
+
+    /**
+     * current candidate, in chunk coordinates
+     */
+    int x;
+    int z;
+
+    SelectionScratch() {
+        for ( Region.FailTypes f : Region.FailTypes.values() ) failMap.put( f, new HashMap<>() );
+    }
+
+    static SelectionScratch get() {
+        SelectionScratch scratch = local.get();
+        scratch.reset();
+        return scratch;
+    }
+
+    void reset() {
+        for ( Map<String, Long> map : failMap.values() ) {
+            if ( !map.isEmpty() ) map.clear();
+        }
+        chunks.clear();
+        selectionCount = 0;
+    }
+
+    void select( int[] xz ) {
+        x = xz[0];
+        z = xz[1];
+    }
+
+    void recordSelection() {
+        if ( selectionCount + 2 > selections.length ) selections = Arrays.copyOf( selections, selections.length * 2 );
+        selections[selectionCount++] = x;
+        selections[selectionCount++] = z;
+    }
+
+    void fail( Region.FailTypes type, String key ) {
+        failMap.get( type ).merge( key, 1L, Long::sum );
+    }
+}
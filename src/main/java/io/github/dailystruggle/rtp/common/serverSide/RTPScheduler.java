@@ -0,0 +1,103 @@
+package io.github.dailystruggle.rtp.common.serverSide;
+
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * where and when server work runs
+ * <br>a regionized server has no single main thread - world work runs on the thread that owns its chunks, and
+ * everything else on a global thread. elsewhere, both of those are the main thread
+ * <br>delays and periods are in ticks
+ */
+public interface RTPScheduler {
+    /**
+     * a scheduled run, or series of runs for a timer
+     */
+    interface Task {
+        void cancel();
+
+        boolean isCancelled();
+    }
+
+    /**
+     * run on the global thread, which owns no world - for the teleport pipeline and anything server-wide
+     */
+    Task runGlobal( Runnable runnable, long delay );
+
+    Task runGlobalTimer( Runnable runnable, long delay, long period );
+
+    /**
+     * run off the server threads, for work that touches no world
+     */
+    Task runAsync( Runnable runnable, long delay );
+
+    Task runAsyncTimer( Runnable runnable, long delay, long period );
+
+    /**
+     * run on the thread that owns this chunk, for block and chunk access
+     */
+    Task runAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable, long delay );
+
+    /**
+     * run on the thread that owns this player, following them if they move between threads first
+     *
+     * @param retired run instead if the player leaves first, on no particular thread
+     */
+    Task runFor( RTPPlayer player, Runnable runnable, Runnable retired, long delay );
+
+    /**
+     * @return whether this thread may run global work now
+     */
+    boolean isGlobalThread();
+
+    /**
+     * @return whether this thread may touch this chunk now
+     */
+    boolean owns( RTPWorld world, int chunkX, int chunkZ );
+
+    /**
+     * @return whether worlds are split between threads, so the global thread can't touch chunks
+     */
+    boolean isRegionized();
+
+    /**
+     * cancel everything this plugin has scheduled
+     */
+    void cancelAll();
+
+    /**
+     * run on the global thread, right away if this is it
+     */
+    default void executeGlobal( Runnable runnable ) {
+        if ( isGlobalThread() ) runnable.run();
+        else runGlobal( runnable, 0 );
+    }
+
+    /**
+     * run on the thread that owns this chunk, right away if this is it
+     */
+    default void executeAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable ) {
+        if ( owns( world, chunkX, chunkZ ) ) runnable.run();
+        else runAt( world, chunkX, chunkZ, runnable, 0 );
+    }
+
+    /**
+     * get a value from the thread that owns this chunk
+     *
+     * @return future completing with the value, or exceptionally if getting it threw
+     */
+    default <T> CompletableFuture<T> supplyAt( RTPWorld world, int chunkX, int chunkZ, Supplier<T> supplier ) {
+        CompletableFuture<T> res = new CompletableFuture<>();
+        executeAt( world, chunkX, chunkZ, () -> {
+            try {
+                res.complete( supplier.get() );
+            } catch ( Throwable throwable ) {
+                res.completeExceptionally( throwable );
+            }
+        } );
+        return res;
+    }
+}
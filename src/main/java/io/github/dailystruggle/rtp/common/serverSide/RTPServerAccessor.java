@@ -153,6 +153,14 @@ public interface RTPServerAccessor {
      */
     boolean isPrimaryThread();
 
+    /**
+     * @return scheduler for running work on the right server thread
+     * <br>defaults to one on the plugin's task pipes, for accessors written before there was a scheduler
+     */
+    default RTPScheduler scheduler() {
+        return TaskPipeScheduler.INSTANCE;
+    }
+
     /**
      * getShape method for overriding region shape
      *
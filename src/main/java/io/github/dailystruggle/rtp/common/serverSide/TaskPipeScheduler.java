@@ -0,0 +1,118 @@
+package io.github.dailystruggle.rtp.common.serverSide;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * scheduling for a server accessor that doesn't provide its own, on the plugin's misc task pipes
+ * <br>global and world work goes on the sync pipe and async work on the async pipe, so it runs whenever the platform
+ * runs the sync and async tick processing, as it had to before there was a scheduler
+ * <br>assumes one main thread, like {@link RTPServerAccessor#isPrimaryThread()} does
+ */
+public final class TaskPipeScheduler implements RTPScheduler {
+    public static final TaskPipeScheduler INSTANCE = new TaskPipeScheduler();
+
+    private final Set<PipeTask> tasks = ConcurrentHashMap.newKeySet();
+
+    private TaskPipeScheduler() {
+
+    }
+
+    private final class PipeTask extends RTPRunnable implements Task {
+        private final RTPTaskPipe pipe;
+        private final Runnable runnable;
+        private final long period;
+
+        private PipeTask( RTPTaskPipe pipe, Runnable runnable, long delay, long period ) {
+            this.pipe = pipe;
+            this.runnable = runnable;
+            this.period = period;
+            setDelay( Math.max( 0, delay ) );
+        }
+
+        @Override
+        public void run() {
+            if ( isCancelled() ) return;
+            try {
+                runnable.run();
+            } finally {
+                if ( period > 0 && !isCancelled() ) {
+                    setDelay( period );
+                    pipe.add( this );
+                } else tasks.remove( this );
+            }
+        }
+
+        @Override
+        public void cancel() {
+            tasks.remove( this );
+            pipe.cancel( this );
+        }
+    }
+
+    private Task schedule( RTPTaskPipe pipe, Runnable runnable, long delay, long period ) {
+        PipeTask task = new PipeTask( pipe, runnable, delay, period );
+        tasks.add( task );
+        pipe.add( task );
+        return task;
+    }
+
+    @Override
+    public Task runGlobal( Runnable runnable, long delay ) {
+        return schedule( RTP.getInstance().miscSyncTasks, runnable, delay, 0 );
+    }
+
+    @Override
+    public Task runGlobalTimer( Runnable runnable, long delay, long period ) {
+        return schedule( RTP.getInstance().miscSyncTasks, runnable, delay, Math.max( 1, period ) );
+    }
+
+    @Override
+    public Task runAsync( Runnable runnable, long delay ) {
+        return schedule( RTP.getInstance().miscAsyncTasks, runnable, delay, 0 );
+    }
+
+    @Override
+    public Task runAsyncTimer( Runnable runnable, long delay, long period ) {
+        return schedule( RTP.getInstance().miscAsyncTasks, runnable, delay, Math.max( 1, period ) );
+    }
+
+    @Override
+    public Task runAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable, long delay ) {
+        return runGlobal( runnable, delay );
+    }
+
+    @Override
+    public Task runFor( RTPPlayer player, Runnable runnable, Runnable retired, long delay ) {
+        return runGlobal( () -> {
+            if ( player.isOnline() ) runnable.run();
+            else retired.run();
+        }, delay );
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return RTP.serverAccessor.isPrimaryThread();
+    }
+
+    @Override
+    public boolean owns( RTPWorld world, int chunkX, int chunkZ ) {
+        return RTP.serverAccessor.isPrimaryThread();
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public void cancelAll() {
+        for ( PipeTask task : tasks ) task.cancel();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.dailystruggle.rtp.common.serverSide.substitutions;
+
+/**
+ * who's waiting on a chunk load, highest priority first
+ */
+public enum ChunkPriority {
+    /**
+     * a player is waiting on it, e.g. loading chunks for a teleport
+     */
+    INTERACTIVE,
+    /**
+     * selection and cache refills, ahead of any player asking
+     */
+    PREFETCH,
+    /**
+     * bulk work like fill tasks, which should never hold up anything else
+     */
+    BACKGROUND;
+
+    /**
+     * @return whether the server should load this ahead of its own work
+     */
+    public boolean urgent() {
+        return this == INTERACTIVE;
+    }
+}
@@ -10,6 +10,14 @@ public interface RTPWorld {
 
     CompletableFuture<RTPChunk> getChunkAt( int chunkX, int chunkZ );
 
+    /**
+     * chunk access for a given class of work, so background loads can't hold up a waiting player
+     * <br>by default, priority is ignored
+     */
+    default CompletableFuture<RTPChunk> getChunkAt( int chunkX, int chunkZ, ChunkPriority priority ) {
+        return getChunkAt( chunkX, chunkZ );
+    }
+
     void keepChunkAt( int chunkX, int chunkZ );
 
     void forgetChunkAt( int chunkX, int chunkZ );
@@ -18,7 +26,42 @@ public interface RTPWorld {
 
     String getBiome( int x, int y, int z );
 
-    void platform( RTPLocation location );
+    /**
+     * biome lookup that never blocks, for a waiting player
+     *
+     * @return future biome name
+     */
+    default CompletableFuture<String> getBiomeAsync( int x, int y, int z ) {
+        return getBiomeAsync( x, y, z, ChunkPriority.INTERACTIVE );
+    }
+
+    /**
+     * biome lookup that never blocks - by default, waits on the chunk load rather than a thread
+     *
+     * @param priority class of work for the chunk load, if the lookup needs one
+     * @return future biome name
+     */
+    default CompletableFuture<String> getBiomeAsync( int x, int y, int z, ChunkPriority priority ) {
+        CompletableFuture<RTPChunk> chunkAt = getChunkAt( x >> 4, z >> 4, priority );
+        if ( chunkAt == null ) return CompletableFuture.completedFuture( getBiome( x, y, z ) );
+        return chunkAt.thenApply( chunk -> getBiome( x, y, z ) );
+    }
+
+    /**
+     * biome the world generator would place at a point, without loading or generating the chunk
+     *
+     * @return predicted biome name, or null if this platform can't predict it
+     */
+    default String predictBiome( int x, int y, int z ) {
+        return null;
+    }
+
+    /**
+     * build the landing platform at a location, from whichever thread owns it
+     *
+     * @return completes once the platform is in place, or there was nothing to build
+     */
+    CompletableFuture<Void> platform( RTPLocation location );
 
     boolean isInactive();
     default boolean isActive()
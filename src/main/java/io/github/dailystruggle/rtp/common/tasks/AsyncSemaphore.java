@@ -0,0 +1,78 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * counting semaphore that hands out permits as futures instead of parking the caller
+ * <br>waiters are served in arrival order
+ */
+public final class AsyncSemaphore {
+    private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture( null );
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int limit;
+    private int available;
+
+    public AsyncSemaphore( int limit ) {
+        this.limit = Math.max( limit, 1 );
+        this.available = this.limit;
+    }
+
+    /**
+     * @return future completing once a permit is held. The holder must call {@link #release()} exactly once.
+     */
+    public synchronized CompletableFuture<Void> acquire() {
+        if ( available > 0 ) {
+            available--;
+            return ACQUIRED;
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add( waiter );
+        return waiter;
+    }
+
+    public void release() {
+        CompletableFuture<Void> next;
+        synchronized ( this ) {
+            next = waiters.poll();
+            if ( next == null ) {
+                if ( available < limit ) available++;
+                return;
+            }
+        }
+        //complete outside the lock, since it runs the waiter's continuation
+        next.complete( null );
+    }
+
+    /**
+     * change the number of permits, waking waiters if it grew
+     */
+    public void setLimit( int limit ) {
+        limit = Math.max( limit, 1 );
+        Queue<CompletableFuture<Void>> wake = new ArrayDeque<>();
+        synchronized ( this ) {
+            if ( limit == this.limit ) return;
+            available += limit - this.limit;
+            this.limit = limit;
+            while ( available > 0 && !waiters.isEmpty() ) {
+                available--;
+                wake.add( waiters.poll() );
+            }
+        }
+        wake.forEach( waiter -> waiter.complete( null ) );
+    }
+
+    public synchronized int available() {
+        return Math.max( available, 0 );
+    }
+
+    public synchronized int inUse() {
+        return limit - available;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+}
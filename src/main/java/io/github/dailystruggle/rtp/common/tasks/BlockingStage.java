@@ -0,0 +1,72 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.Configs;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+
+/**
+ * parts of the pipeline that wait on chunk loads, the database, or each other, each run on its own {@link StageExecutor}
+ * so one stage waiting can't starve the others or the server's scheduler threads
+ */
+public enum BlockingStage {
+    /**
+     * per-tick async processing of the teleport pipeline and region caches
+     */
+    PIPELINE( null, 2 ),
+    /**
+     * region cache refills and queue processing, one worker per region running
+     */
+    REGIONS( PerformanceKeys.regionWorkers, 4 ),
+    /**
+     * candidate checks for async selection, which wait on biome lookups and chunk loads
+     */
+    SELECTION( PerformanceKeys.selectionConcurrency, 64 ),
+    /**
+     * database reads and writes
+     */
+    DATABASE( PerformanceKeys.databaseConcurrency, 1 ),
+    /**
+     * fill tasks, which wait on batches of chunk checks
+     */
+    FILL( PerformanceKeys.fillConcurrency, 2 );
+
+    static {
+        Configs.onReload( BlockingStage::updateLimits );
+        updateLimits();
+    }
+
+    private final PerformanceKeys key;
+    private final int defaultLimit;
+    private final StageExecutor executor;
+
+    BlockingStage( PerformanceKeys key, int defaultLimit ) {
+        this.key = key;
+        this.defaultLimit = defaultLimit;
+        this.executor = new StageExecutor( name().toLowerCase(), defaultLimit, true );
+    }
+
+    public static void updateLimits() {
+        if ( RTP.configs == null ) return;
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( performance == null ) return;
+        boolean virtual = Boolean.parseBoolean( performance.getConfigValue( PerformanceKeys.virtualThreads, true ).toString() );
+        for ( BlockingStage stage : values() ) {
+            int limit = ( stage.key == null )
+                    ? stage.defaultLimit
+                    : performance.getNumber( stage.key, stage.defaultLimit ).intValue();
+            stage.executor.configure( limit, virtual );
+        }
+    }
+
+    public StageExecutor executor() {
+        return executor;
+    }
+
+    /**
+     * release every stage's threads, letting running tasks finish
+     */
+    public static void shutdown() {
+        for ( BlockingStage stage : values() ) stage.executor.shutdown();
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.Configs;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * chunk releases held back for a short grace period, then carried out a few per tick
+ * <br>failed candidates and finished teleports often have a neighbour asked for right after,
+ * so a chunk asked for again before its release comes due is simply left alone
+ */
+public final class ChunkReleaseQueue {
+    private static volatile long graceTicks = 100;
+    private static volatile int releasesPerTick = 16;
+
+    static {
+        Configs.onReload( ChunkReleaseQueue::updateLimits );
+        updateLimits();
+    }
+
+    public static void updateLimits() {
+        if ( RTP.configs == null ) return;
+        ConfigParser<PerformanceKeys> performance = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( performance == null ) return;
+        graceTicks = performance.getNumber( PerformanceKeys.chunkReleaseDelay, 100 ).longValue();
+        releasesPerTick = performance.getNumber( PerformanceKeys.chunkReleasesPerTick, 16 ).intValue();
+    }
+
+    private static final class Pending {
+        private final RTPWorld world;
+        private final int cx;
+        private final int cz;
+        private final long due;
+        private RTPChunk unload = null;
+        private int forgets = 0;
+        private boolean done = false;
+
+        private Pending( RTPWorld world, int cx, int cz, long due ) {
+            this.world = world;
+            this.cx = cx;
+            this.cz = cz;
+            this.due = due;
+        }
+    }
+
+    private final long fixedGrace;
+    private final int fixedBudget;
+    private final Map<RTPWorld, LongObjectHashMap<Pending>> pending = new HashMap<>();
+    private final ArrayDeque<Pending> order = new ArrayDeque<>();
+    private long tick = 0;
+    private long avoided = 0;
+    private long released = 0;
+
+    /**
+     * grace period and per-tick budget from performance.yml
+     */
+    public ChunkReleaseQueue() {
+        this( -1, -1 );
+    }
+
+    /**
+     * @param graceTicks ticks to hold each release back
+     * @param perTick    releases carried out per tick, 0 or less for no limit
+     */
+    public ChunkReleaseQueue( long graceTicks, int perTick ) {
+        this.fixedGrace = graceTicks;
+        this.fixedBudget = perTick;
+    }
+
+    private long grace() {
+        return ( fixedGrace < 0 ) ? graceTicks : fixedGrace;
+    }
+
+    private int budget() {
+        return ( fixedBudget < 0 ) ? releasesPerTick : fixedBudget;
+    }
+
+    private Pending pendingFor( RTPWorld world, int cx, int cz ) {
+        LongObjectHashMap<Pending> map = pending.computeIfAbsent( world, w -> new LongObjectHashMap<>( 64 ) );
+        long key = ChunkKey.pack( cx, cz );
+        Pending p = map.get( key );
+        if ( p == null ) {
+            p = new Pending( world, cx, cz, tick + grace() );
+            map.put( key, p );
+            order.add( p );
+        }
+        return p;
+    }
+
+    private void drop( Pending p ) {
+        p.done = true;
+        LongObjectHashMap<Pending> map = pending.get( p.world );
+        if ( map == null ) return;
+        map.remove( ChunkKey.pack( p.cx, p.cz ) );
+        if ( map.size() == 0 ) pending.remove( p.world );
+    }
+
+    /**
+     * unload a chunk once its grace period is up, unless it's asked for again first
+     */
+    public synchronized void unload( RTPChunk chunk ) {
+        if ( chunk == null ) return;
+        RTPWorld world = chunk.getWorld();
+        if ( world == null ) {
+            chunk.unload();
+            return;
+        }
+        pendingFor( world, chunk.x(), chunk.z() ).unload = chunk;
+    }
+
+    /**
+     * drop one kept reference once the grace period is up, unless the chunk is kept again first
+     */
+    public synchronized void forget( RTPWorld world, int cx, int cz ) {
+        pendingFor( world, cx, cz ).forgets++;
+    }
+
+    /**
+     * a chunk was asked for - call off its unload if one is pending
+     */
+    public synchronized void requested( RTPWorld world, int cx, int cz ) {
+        if ( pending.isEmpty() ) return;
+        LongObjectHashMap<Pending> map = pending.get( world );
+        if ( map == null ) return;
+        Pending p = map.get( ChunkKey.pack( cx, cz ) );
+        if ( p == null || p.unload == null ) return;
+        p.unload = null;
+        avoided++;
+        if ( p.forgets == 0 ) drop( p );
+    }
+
+    /**
+     * a chunk is to be kept - take back one pending forget instead, if there is one
+     *
+     * @return true if a pending forget was taken back, so the caller shouldn't add another reference
+     */
+    public synchronized boolean kept( RTPWorld world, int cx, int cz ) {
+        if ( pending.isEmpty() ) return false;
+        LongObjectHashMap<Pending> map = pending.get( world );
+        if ( map == null ) return false;
+        Pending p = map.get( ChunkKey.pack( cx, cz ) );
+        if ( p == null || p.forgets == 0 ) return false;
+        p.forgets--;
+        avoided++;
+        if ( p.forgets == 0 && p.unload == null ) drop( p );
+        return true;
+    }
+
+    /**
+     * advance one tick, carrying out releases that have come due, up to the per-tick budget
+     */
+    public void tick() {
+        List<Pending> due = new ArrayList<>();
+        synchronized ( this ) {
+            tick++;
+            int budget = budget();
+            while ( !order.isEmpty() && ( budget <= 0 || due.size() < budget ) ) {
+                Pending p = order.peek();
+                if ( p.done ) {
+                    order.poll();
+                    continue;
+                }
+                if ( p.due > tick ) break;
+                order.poll();
+                drop( p );
+                due.add( p );
+            }
+            released += due.size();
+        }
+        due.forEach( ChunkReleaseQueue::release );
+    }
+
+    /**
+     * carry out every pending release now
+     */
+    public void flush() {
+        List<Pending> due = new ArrayList<>();
+        synchronized ( this ) {
+            for ( Pending p; ( p = order.poll() ) != null; ) {
+                if ( p.done ) continue;
+                drop( p );
+                due.add( p );
+            }
+            released += due.size();
+        }
+        due.forEach( ChunkReleaseQueue::release );
+    }
+
+    private static void release( Pending p ) {
+        try {
+            for ( int i = 0; i < p.forgets; i++ ) p.world.forgetChunkAt( p.cx, p.cz );
+            if ( p.unload != null ) p.unload.unload();
+        } catch ( Throwable throwable ) {
+            RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+        }
+    }
+
+    public synchronized int size() {
+        int res = 0;
+        for ( LongObjectHashMap<Pending> map : pending.values() ) res += map.size();
+        return res;
+    }
+
+    /**
+     * @return releases called off because the chunk was asked for again in time - each one a reload saved
+     */
+    public synchronized long avoided() {
+        return avoided;
+    }
+
+    public synchronized long released() {
+        return released;
+    }
+}
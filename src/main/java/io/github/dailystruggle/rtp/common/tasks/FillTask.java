@@ -9,10 +9,12 @@ import io.github.dailystruggle.rtp.common.selection.region.Region;
 import io.github.dailystruggle.rtp.common.selection.region.selectors.memory.shapes.MemoryShape;
 import io.github.dailystruggle.rtp.common.selection.region.selectors.verticalAdjustors.VerticalAdjustor;
 import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.ChunkPriority;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPBlock;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tools.SyncChunkLoads;
 
 import java.math.BigInteger;
 import java.util.*;
@@ -33,7 +35,7 @@ public class FillTask extends RTPRunnable {
     private final long start;
     private final CompletableFuture<Boolean> done = new CompletableFuture<>();
     {
-        RTP.futures.add( done );
+        RTP.futures.register( this, done );
     }
     private final AtomicLong completionCounter = new AtomicLong();
     private final Semaphore completionGuard = new Semaphore( 1 );
@@ -251,7 +253,7 @@ public class FillTask extends RTPRunnable {
             return CompletableFuture.completedFuture( false );
         }
 
-        CompletableFuture<RTPChunk> cfChunk = world.getChunkAt( select[0], select[1] );
+        CompletableFuture<RTPChunk> cfChunk = world.getChunkAt( select[0], select[1], ChunkPriority.BACKGROUND );
 
         CompletableFuture<Boolean> res = new CompletableFuture<>();
         cfChunk.thenAccept( chunk -> {
@@ -320,7 +322,7 @@ public class FillTask extends RTPRunnable {
                     if( chunks.containsKey( xz) ) chunk1 = chunks.get( xz );
                     else {
                         try {
-                            chunk1 = region.getWorld().getChunkAt( chunkX, chunkZ ).get();
+                            chunk1 = SyncChunkLoads.await( region.getWorld().getChunkAt( chunkX, chunkZ, ChunkPriority.BACKGROUND ), region.getWorld(), chunkX, chunkZ );
                             if( chunk1 == null ) return;
                             chunks.put( xz,chunk1 );
                             chunk1.keep( true );
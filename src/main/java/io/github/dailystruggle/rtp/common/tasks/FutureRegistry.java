@@ -0,0 +1,145 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * futures in flight, grouped by who's waiting on them - a region, a teleport, a fill task, a world's chunk loads
+ * <br>each future leaves on its own once it completes, so nothing here needs sweeping
+ * <br>owners are matched by identity, so pass the same object to register and cancel, e.g. the region or the teleport's data
+ */
+public final class FutureRegistry {
+    /**
+     * one registered future, closed once it completes or is cancelled
+     */
+    public static final class Handle {
+        private final FutureRegistry registry;
+        private final Owner owner;
+        private final CompletableFuture<?> future;
+        private final AtomicBoolean open = new AtomicBoolean( true );
+
+        private Handle( FutureRegistry registry, Owner owner, CompletableFuture<?> future ) {
+            this.registry = registry;
+            this.owner = owner;
+            this.future = future;
+        }
+
+        /**
+         * stop tracking this future, without touching it
+         */
+        public void close() {
+            if ( open.compareAndSet( true, false ) ) registry.remove( this );
+        }
+
+        public boolean isOpen() {
+            return open.get();
+        }
+
+        public Object owner() {
+            return owner.value;
+        }
+
+        public CompletableFuture<?> future() {
+            return future;
+        }
+    }
+
+    private static final class Owner {
+        private final Object value;
+
+        private Owner( Object value ) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals( Object other ) {
+            return other instanceof Owner && ( (Owner ) other ).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode( value );
+        }
+    }
+
+    private final ConcurrentHashMap<Owner, Set<Handle>> byOwner = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * track a future until it completes
+     */
+    public Handle register( Object owner, CompletableFuture<?> future ) {
+        Handle handle = new Handle( this, new Owner( owner ), future );
+        byOwner.compute( handle.owner, ( key, handles ) -> {
+            if ( handles == null ) handles = ConcurrentHashMap.newKeySet();
+            handles.add( handle );
+            return handles;
+        } );
+        inFlight.incrementAndGet();
+        future.whenComplete( ( result, throwable ) -> handle.close() );
+        return handle;
+    }
+
+    private void remove( Handle handle ) {
+        byOwner.computeIfPresent( handle.owner, ( key, handles ) -> {
+            handles.remove( handle );
+            return handles.isEmpty() ? null : handles;
+        } );
+        inFlight.decrementAndGet();
+    }
+
+    private List<Handle> handles( Object owner ) {
+        Set<Handle> handles = byOwner.get( new Owner( owner ) );
+        return ( handles == null ) ? Collections.emptyList() : new ArrayList<>( handles );
+    }
+
+    /**
+     * cancel every future this owner is waiting on
+     *
+     * @return futures cancelled
+     */
+    public int cancel( Object owner ) {
+        int res = 0;
+        for ( Handle handle : handles( owner ) ) {
+            if ( handle.future.cancel( false ) ) res++;
+            handle.close();
+        }
+        return res;
+    }
+
+    /**
+     * complete every future in flight with null, releasing anything blocked on one - for shutdown
+     */
+    public void completeAll() {
+        List<Handle> all = new ArrayList<>();
+        byOwner.values().forEach( all::addAll );
+        for ( Handle handle : all ) {
+            handle.future.complete( null );
+            handle.close();
+        }
+    }
+
+    public long inFlight() {
+        return inFlight.get();
+    }
+
+    public int inFlight( Object owner ) {
+        Set<Handle> handles = byOwner.get( new Owner( owner ) );
+        return ( handles == null ) ? 0 : handles.size();
+    }
+
+    /**
+     * @return futures in flight for each owner with any
+     */
+    public Map<Object, Integer> inFlightByOwner() {
+        Map<Object, Integer> res = new IdentityHashMap<>();
+        byOwner.forEach( ( owner, handles ) -> {
+            int size = handles.size();
+            if ( size > 0 ) res.put( owner.value, size );
+        } );
+        return res;
+    }
+}
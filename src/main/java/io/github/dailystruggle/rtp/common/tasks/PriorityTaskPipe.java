@@ -0,0 +1,199 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import io.github.dailystruggle.rtp.common.RTP;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * task pipe that runs higher priority tasks first, see {@link RTPPrioritized}
+ * <br>keeps a moving cost estimate per task class, and runs every task expected to fit in the time given,
+ * passing over ones that won't fit in favor of cheaper ones behind them
+ * <br>the first task of each pass always runs, so an expensive task can't be held back forever
+ */
+public class PriorityTaskPipe extends RTPTaskPipe {
+    private final ConcurrentLinkedQueue<Runnable> incoming = new ConcurrentLinkedQueue<>();
+    private final TreeMap<Integer, ArrayDeque<Runnable>> buckets = new TreeMap<>( Comparator.reverseOrder() );
+    private final Map<Class<?>, Long> costs = new HashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private final Semaphore accessGuard = new Semaphore( 1 );
+    private final LongSupplier nanoClock;
+    private volatile boolean stop = false;
+    //set when stop or clear is called during a pass, possibly by one of its own tasks - the pass finishes the job
+    private volatile boolean cancelPending = false;
+    private volatile boolean clearPending = false;
+
+    public PriorityTaskPipe() {
+        this( System::nanoTime );
+    }
+
+    /**
+     * @param nanoClock time source in nanoseconds, replaceable for tests
+     */
+    public PriorityTaskPipe( LongSupplier nanoClock ) {
+        this.nanoClock = nanoClock;
+    }
+
+    private static int priority( Runnable runnable ) {
+        return ( runnable instanceof RTPPrioritized ) ? ( (RTPPrioritized ) runnable ).getPriority() : 0;
+    }
+
+    @Override
+    public void execute( long availableTime ) {
+        if ( stop ) return;
+        if ( size.get() == 0 ) return;
+        try {
+            accessGuard.acquire();
+        } catch ( InterruptedException e ) {
+            return;
+        }
+
+        try {
+            for ( Runnable runnable; ( runnable = incoming.poll() ) != null; ) {
+                buckets.computeIfAbsent( priority( runnable ), p -> new ArrayDeque<>() ).add( runnable );
+            }
+            int dropped = delayed.advance( runnable ->
+                    buckets.computeIfAbsent( priority( runnable ), p -> new ArrayDeque<>() ).add( runnable ) );
+            size.addAndGet( -dropped );
+
+            long start = nanoClock.getAsLong();
+            long elapsed = 0;
+            boolean ran = false;
+
+            pass:
+            for ( Map.Entry<Integer, ArrayDeque<Runnable>> entry : buckets.entrySet() ) {
+                ArrayDeque<Runnable> bucket = entry.getValue();
+                for ( int i = bucket.size(); i > 0 && !stop; i-- ) {
+                    //out of time, so nothing else can fit - leave the rest where they are
+                    if ( ran && elapsed >= availableTime ) break pass;
+                    Runnable runnable = bucket.poll();
+                    if ( runnable instanceof RTPDelayable && ( (RTPDelayable ) runnable ).getDelay() > 0 ) {
+                        delayed.add( (RTPDelayable ) runnable );
+                        continue;
+                    }
+                    if ( runnable instanceof RTPCancellable && ( (RTPCancellable ) runnable ).isCancelled() ) {
+                        size.decrementAndGet();
+                        continue;
+                    }
+
+                    if ( ran && elapsed + estimate( runnable.getClass() ) > availableTime ) {
+                        bucket.add( runnable ); //doesn't fit this pass, keep its place for the next
+                        continue;
+                    }
+
+                    size.decrementAndGet();
+                    long localStart = nanoClock.getAsLong();
+                    try {
+                        runnable.run();
+                    } catch ( Throwable throwable ) {
+                        RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+                    }
+                    long localStop = nanoClock.getAsLong();
+                    record( runnable.getClass(), localStop - localStart );
+                    ran = true;
+                    elapsed = localStop - start;
+                }
+            }
+
+            if ( cancelPending ) cancelAll();
+            if ( clearPending ) clearAll();
+        } finally {
+            accessGuard.release();
+        }
+    }
+
+    private long estimate( Class<?> type ) {
+        Long cost;
+        synchronized ( costs ) {
+            cost = costs.get( type );
+        }
+        return ( cost == null ) ? avgTime : cost;
+    }
+
+    private void record( Class<?> type, long cost ) {
+        synchronized ( costs ) {
+            Long prior = costs.get( type );
+            costs.put( type, ( prior == null ) ? cost : ( (prior / 8 ) * 7 ) + ( cost / 8 ) );
+        }
+        avgTime = ( (avgTime / 8 ) * 7 ) + ( cost / 8 );
+    }
+
+    /**
+     * @return moving cost estimate for this task class in nanoseconds, or the pipe's overall average if it hasn't run yet
+     */
+    public long avgTime( Class<?> type ) {
+        return estimate( type );
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    @Override
+    public void add( Runnable runnable ) {
+        size.incrementAndGet();
+        incoming.add( runnable );
+    }
+
+    @Override
+    public void cancel( Runnable runnable ) {
+        if ( runnable instanceof RTPCancellable ) ( (RTPCancellable ) runnable ).setCancelled( true );
+        if ( runnable instanceof RTPDelayable && delayed.remove( (RTPDelayable ) runnable ) ) size.decrementAndGet();
+    }
+
+    @Override
+    public void clear() {
+        if ( !accessGuard.tryAcquire() ) {
+            clearPending = true;
+            return;
+        }
+        try {
+            clearAll();
+        } finally {
+            accessGuard.release();
+        }
+    }
+
+    private void clearAll() {
+        clearPending = false;
+        incoming.clear();
+        buckets.clear();
+        delayed.clear();
+        size.set( 0 );
+    }
+
+    @Override
+    public void start() {
+        stop = false;
+    }
+
+    @Override
+    public void stop() {
+        stop = true;
+        if ( !accessGuard.tryAcquire() ) {
+            cancelPending = true;
+            return;
+        }
+        try {
+            cancelAll();
+        } finally {
+            accessGuard.release();
+        }
+    }
+
+    private void cancelAll() {
+        cancelPending = false;
+        incoming.forEach( PriorityTaskPipe::cancelTask );
+        buckets.values().forEach( bucket -> bucket.forEach( PriorityTaskPipe::cancelTask ) );
+        delayed.forEach( PriorityTaskPipe::cancelTask );
+    }
+
+    private static void cancelTask( Runnable runnable ) {
+        if ( runnable instanceof RTPRunnable ) ( (RTPRunnable ) runnable ).setCancelled( true );
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+public interface RTPPrioritized {
+    /**
+     * @return scheduling priority in a {@link PriorityTaskPipe}, higher runs first - tasks without one count as 0
+     */
+    int getPriority();
+}
@@ -2,8 +2,6 @@ package io.github.dailystruggle.rtp.common.tasks;
 
 import io.github.dailystruggle.rtp.common.RTP;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -12,17 +10,22 @@ import java.util.logging.Level;
 public class RTPTaskPipe {
     private final ConcurrentLinkedQueue<Runnable> runnables = new ConcurrentLinkedQueue<>();
     private final Semaphore accessGuard = new Semaphore( 1 );
+    /**
+     * delayed tasks, out of the queue until they come due
+     */
+    protected final TimingWheel delayed = new TimingWheel( 256 );
     protected long avgTime = TimeUnit.MILLISECONDS.toNanos( 50 );
     //    protected long avgTime = Long.MAX_VALUE;
     private boolean stop = false;
 
     public void execute( long availableTime ) {
         if ( stop ) return;
-        if ( runnables.isEmpty() ) return;
+        if ( runnables.isEmpty() && delayed.size() == 0 ) return;
         long dt = 0;
         long start = System.nanoTime();
 
-        List<RTPDelayable> delayedRunnables = new ArrayList<>( runnables.size() );
+        delayed.advance( runnables::add );
+        if ( runnables.isEmpty() ) return;
 
         do {
             try {
@@ -33,7 +36,7 @@ public class RTPTaskPipe {
                 if ( runnable instanceof RTPDelayable ) {
                     long d = ( (RTPDelayable ) runnable ).getDelay();
                     if ( d > 0 ) {
-                        delayedRunnables.add( (RTPDelayable ) runnable );
+                        delayed.add( (RTPDelayable ) runnable );
                         continue;
                     }
                 }
@@ -62,16 +65,10 @@ public class RTPTaskPipe {
             }
 
         } while ( !runnables.isEmpty() && ( dt + avgTime ) < availableTime );
-
-        for ( RTPDelayable runnable : delayedRunnables ) {
-            runnable.setDelay( runnable.getDelay() - 1 );
-        }
-
-        runnables.addAll( delayedRunnables );
     }
 
     public long size() {
-        return runnables.size();
+        return runnables.size() + delayed.size();
     }
 
     public long avgTime() {
@@ -82,8 +79,17 @@ public class RTPTaskPipe {
         runnables.add( runnable );
     }
 
+    /**
+     * cancel a task and take it out of the pipe right away if it's waiting on a delay
+     */
+    public void cancel( Runnable runnable ) {
+        if ( runnable instanceof RTPCancellable ) ( (RTPCancellable ) runnable ).setCancelled( true );
+        if ( runnable instanceof RTPDelayable ) delayed.remove( (RTPDelayable ) runnable );
+    }
+
     public void clear() {
         runnables.clear();
+        delayed.clear();
     }
 
     public void start() {
@@ -94,6 +100,9 @@ public class RTPTaskPipe {
         runnables.forEach( runnable -> {
             if ( runnable instanceof RTPRunnable ) ( (RTPRunnable ) runnable ).setCancelled( true );
         } );
+        delayed.forEach( runnable -> {
+            if ( runnable instanceof RTPRunnable ) ( (RTPRunnable ) runnable ).setCancelled( true );
+        } );
         stop = true;
     }
 }
@@ -0,0 +1,248 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import io.github.dailystruggle.rtp.common.RTP;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * executor for one blocking stage, with its own cap on tasks running at once
+ * <br>tasks past the cap wait in a queue here rather than holding a thread, and each one gets its own thread once
+ * started - a virtual thread where the runtime has them, otherwise a pooled platform thread
+ * <br>note a virtual thread blocked inside a synchronized block still holds its carrier thread
+ */
+public final class StageExecutor implements Executor {
+    private static final Method newVirtualExecutor;
+
+    static {
+        Method method;
+        try {
+            method = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+        } catch ( NoSuchMethodException e ) {
+            method = null;
+        }
+        newVirtualExecutor = method;
+    }
+
+    /**
+     * @return whether this runtime has virtual threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        return newVirtualExecutor != null;
+    }
+
+    private static final class Queued {
+        private final Runnable runnable;
+        private final Runnable rejected;
+        private final long queuedAt = System.nanoTime();
+
+        private Queued( Runnable runnable, Runnable rejected ) {
+            this.runnable = runnable;
+            this.rejected = rejected;
+        }
+    }
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Queued> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private volatile int limit;
+    private volatile boolean virtual;
+    private ExecutorService backend = null;
+
+    /**
+     * @param limit   most tasks running at once, 0 or less for no limit
+     * @param virtual use virtual threads where available
+     */
+    public StageExecutor( String name, int limit, boolean virtual ) {
+        this.name = name;
+        this.limit = limit;
+        this.virtual = virtual;
+    }
+
+    @Override
+    public void execute( Runnable runnable ) {
+        execute( runnable, null );
+    }
+
+    /**
+     * @param rejected run instead of the task if no backend will take it, for a caller that would rather skip it
+     *                 than have it run in place - null to run it in place
+     */
+    public void execute( Runnable runnable, Runnable rejected ) {
+        submitted.incrementAndGet();
+        queue.add( new Queued( runnable, rejected ) );
+        dispatch();
+    }
+
+    /**
+     * start queued tasks while there's room under the cap
+     * <br>called after every add and every finish, so a task is never left queued with room to run
+     */
+    private void dispatch() {
+        while ( !queue.isEmpty() ) {
+            int a = active.get();
+            int l = limit;
+            if ( l > 0 && a >= l ) return;
+            if ( !active.compareAndSet( a, a + 1 ) ) continue;
+            Queued queued = queue.poll();
+            if ( queued == null ) {
+                active.decrementAndGet();
+                continue;
+            }
+            peak.accumulateAndGet( a + 1, Math::max );
+            submit( queued );
+        }
+    }
+
+    /**
+     * hand a task to the backend, never dropping it
+     * <br>a backend shut down by {@link #configure} or {@link #shutdown} under a caller that still held it rejects
+     * the task, so it's retried on a fresh one, and run here as a last resort - or handed back to its rejection
+     * callback, if it has one
+     */
+    private void submit( Queued queued ) {
+        for ( int attempt = 0; attempt < 2; attempt++ ) {
+            try {
+                backend().execute( () -> run( queued ) );
+                return;
+            } catch ( RejectedExecutionException e ) {
+                if ( attempt > 0 ) RTP.log( Level.WARNING, "[RTP] " + name + " stage rejected a task", e );
+            }
+        }
+        if ( queued.rejected == null ) {
+            run( queued );
+            return;
+        }
+        active.decrementAndGet();
+        failed.incrementAndGet();
+        try {
+            queued.rejected.run();
+        } catch ( Throwable throwable ) {
+            RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+        }
+    }
+
+    private void run( Queued queued ) {
+        long start = System.nanoTime();
+        waitNanos.addAndGet( start - queued.queuedAt );
+        try {
+            queued.runnable.run();
+            completed.incrementAndGet();
+        } catch ( Throwable throwable ) {
+            failed.incrementAndGet();
+            RTP.log( Level.WARNING, throwable.getMessage(), throwable );
+        } finally {
+            runNanos.addAndGet( System.nanoTime() - start );
+            active.decrementAndGet();
+            dispatch();
+        }
+    }
+
+    private synchronized ExecutorService backend() {
+        if ( backend == null || backend.isShutdown() ) backend = newBackend();
+        return backend;
+    }
+
+    private ExecutorService newBackend() {
+        if ( virtual && newVirtualExecutor != null ) {
+            try {
+                return ( ExecutorService ) newVirtualExecutor.invoke( null );
+            } catch ( ReflectiveOperationException e ) {
+                RTP.log( Level.WARNING, "[RTP] virtual threads unavailable, " + name + " stage using platform threads", e );
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool( runnable -> {
+            Thread thread = new Thread( runnable, "RTP-" + name + "-" + threadCount.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+    }
+
+    /**
+     * change the cap and backend - tasks already running finish where they are
+     */
+    public void configure( int limit, boolean virtual ) {
+        this.limit = limit;
+        if ( this.virtual != virtual ) {
+            this.virtual = virtual;
+            shutdown();
+        }
+        dispatch();
+    }
+
+    /**
+     * let running tasks finish and release the threads - the next task starts a new backend
+     */
+    public synchronized void shutdown() {
+        if ( backend != null ) backend.shutdown();
+        backend = null;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return whether tasks run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual && newVirtualExecutor != null;
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    /**
+     * @return most tasks seen running at once
+     */
+    public int peak() {
+        return peak.get();
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public long submitted() {
+        return submitted.get();
+    }
+
+    public long completed() {
+        return completed.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return average time tasks spent queued for a slot, in nanoseconds
+     */
+    public long avgWait() {
+        long n = completed.get() + failed.get();
+        return ( n == 0 ) ? 0 : waitNanos.get() / n;
+    }
+
+    /**
+     * @return average time tasks spent running, in nanoseconds
+     */
+    public long avgRun() {
+        long n = completed.get() + failed.get();
+        return ( n == 0 ) ? 0 : runNanos.get() / n;
+    }
+}
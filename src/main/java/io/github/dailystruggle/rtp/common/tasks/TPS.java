@@ -1,27 +1,26 @@
 package io.github.dailystruggle.rtp.common.tasks;
 
-public class TPS implements Runnable {
-    public static final long[] TICKS = new long[600];
-    public static int TICK_COUNT = 0;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * scheduled once per tick where the server doesn't report ticks itself, see {@link TickGovernor}
+ */
+public class TPS implements Runnable {
     public static double getTPS( int ticks ) {
         long elapsed = timeSinceTick( ticks );
         return ticks / ( (double ) elapsed / 1000.0D );
     }
 
+    /**
+     * @return millis since that tick started, or 50 without that much history
+     */
     public static long timeSinceTick( int ticks ) {
-        if ( TICK_COUNT < ticks ) {
-            return 50;
-        }
-        int target = ( (TICK_COUNT - 1 ) - ticks ) % TICKS.length;
-        if ( target < 0 ) return 50;
-
-        return System.currentTimeMillis() - TICKS[target];
+        long nanos = TickGovernor.get().timeSinceTick( ticks );
+        if ( nanos < 0 ) return 50;
+        return TimeUnit.NANOSECONDS.toMillis( nanos );
     }
 
     public void run() {
-        TICKS[( TICK_COUNT % TICKS.length )] = System.currentTimeMillis();
-
-        TICK_COUNT += 1;
+        TickGovernor.get().tickStart();
     }
 }
@@ -0,0 +1,131 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * tick timing, and the time budgets handed to the sync and async pipelines from it
+ * <br>fed a start per tick, and an end per tick where the server reports one. without ends, a tick is assumed to
+ * spend {@link #FALLBACK_BUSY} on the server's own work
+ * <br>ticks that run long leave a debt the server makes up with short ticks after - budgets shrink by the debt until
+ * it's paid back, so the plugin doesn't add to a server that's behind
+ */
+public final class TickGovernor {
+    public static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos( 50 );
+    /**
+     * assumed busy time per tick when the server doesn't report tick ends
+     */
+    static final long FALLBACK_BUSY = TimeUnit.MILLISECONDS.toNanos( 30 );
+    /**
+     * most debt carried, about as far behind as the server will try to catch up
+     */
+    static final long MAX_DEBT = 20 * TICK_NANOS;
+    /**
+     * share of the free time the main thread pipelines may spend
+     */
+    static final double SYNC_SHARE = 0.5;
+
+    private static final TickGovernor instance = new TickGovernor( System::nanoTime );
+
+    public static TickGovernor get() {
+        return instance;
+    }
+
+    private final LongSupplier nanoClock;
+    private final long[] starts = new long[600];
+    private long count = 0;
+    private long lastStart = 0;
+    private long busy = FALLBACK_BUSY;
+    private boolean endsReported = false;
+    private long debt = 0;
+
+    /**
+     * @param nanoClock time source in nanoseconds, replaceable for tests
+     */
+    public TickGovernor( LongSupplier nanoClock ) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * a tick just started
+     */
+    public synchronized void tickStart() {
+        long now = nanoClock.getAsLong();
+        if ( count > 0 ) {
+            long dt = now - lastStart;
+            debt = Math.min( MAX_DEBT, Math.max( 0, debt + dt - TICK_NANOS ) );
+        }
+        starts[( int ) ( count % starts.length )] = now;
+        count++;
+        lastStart = now;
+    }
+
+    /**
+     * the current tick just finished
+     */
+    public synchronized void tickEnd() {
+        if ( count == 0 ) return;
+        long dt = nanoClock.getAsLong() - lastStart;
+        busy = endsReported ? ( (busy / 8 ) * 7 ) + ( dt / 8 ) : dt;
+        endsReported = true;
+    }
+
+    /**
+     * @return expected busy time per tick in nanoseconds
+     */
+    public synchronized long busy() {
+        //without ends, running behind shows up as debt instead
+        return endsReported ? busy : FALLBACK_BUSY;
+    }
+
+    /**
+     * @return tick time behind schedule in nanoseconds
+     */
+    public synchronized long debt() {
+        return debt;
+    }
+
+    /**
+     * @return free time per tick in nanoseconds, after the server's own work and any debt
+     */
+    public synchronized long headroom() {
+        return Math.max( 0, TICK_NANOS - busy() - debt );
+    }
+
+    /**
+     * @return nanoseconds the main thread pipelines may spend this tick
+     */
+    public long syncBudget() {
+        return ( long ) ( headroom() * SYNC_SHARE );
+    }
+
+    /**
+     * @return nanoseconds the async pipelines may spend per pass - the same free time, since their results land on
+     * the main thread
+     */
+    public long asyncBudget() {
+        return headroom();
+    }
+
+    /**
+     * @return millis past the point this tick's free time runs out, negative while there's time left, 0 before the first tick
+     */
+    public synchronized long overTime() {
+        if ( count == 0 ) return 0;
+        long deadline = lastStart + headroom();
+        return Math.floorDiv( nanoClock.getAsLong() - deadline, 1_000_000L );
+    }
+
+    /**
+     * @return nanoseconds since the start of the tick this many ticks before the last, or -1 without that much history
+     */
+    public synchronized long timeSinceTick( int ticks ) {
+        if ( ticks < 0 || ticks >= starts.length || count <= ticks ) return -1;
+        long target = count - 1 - ticks;
+        return nanoClock.getAsLong() - starts[( int ) ( target % starts.length )];
+    }
+
+    public synchronized long ticks() {
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.dailystruggle.rtp.common.tasks;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * hashed timing wheel for delayed tasks, one slot per tick
+ * <br>a waiting task costs nothing until its slot comes around, rather than a decrement on every pass.
+ * delays longer than the wheel wait out extra rounds in the same slot
+ * <br>removing a task unlinks it in constant time - tasks cancelled through {@link RTPCancellable} instead
+ * are dropped when their slot comes around, without running
+ */
+public final class TimingWheel {
+    private static final class Node {
+        private final RTPDelayable task;
+        private final long due;
+        private final int slot;
+        private Node prev = null;
+        private Node next = null;
+
+        private Node( RTPDelayable task, long due, int slot ) {
+            this.task = task;
+            this.due = due;
+            this.slot = slot;
+        }
+    }
+
+    private final Node[] slots;
+    private final int mask;
+    private final Map<RTPDelayable, Node> nodes = new IdentityHashMap<>();
+    private long tick = 0;
+
+    /**
+     * @param slots ticks per round, rounded up to a power of two
+     */
+    public TimingWheel( int slots ) {
+        int size = Integer.highestOneBit( Math.max( 1, slots - 1 ) ) << 1;
+        this.slots = new Node[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * hold a task for {@link RTPDelayable#getDelay()} ticks
+     * <br>adding a task that's already waiting moves it
+     */
+    public synchronized void add( RTPDelayable task ) {
+        unlink( nodes.remove( task ) );
+        long due = tick + Math.max( 1, task.getDelay() );
+        Node node = new Node( task, due, ( int ) ( due & mask ) );
+        node.next = slots[node.slot];
+        if ( node.next != null ) node.next.prev = node;
+        slots[node.slot] = node;
+        nodes.put( task, node );
+    }
+
+    /**
+     * @return true if the task was waiting here
+     */
+    public synchronized boolean remove( RTPDelayable task ) {
+        Node node = nodes.remove( task );
+        unlink( node );
+        return node != null;
+    }
+
+    private void unlink( Node node ) {
+        if ( node == null ) return;
+        if ( node.prev != null ) node.prev.next = node.next;
+        else slots[node.slot] = node.next;
+        if ( node.next != null ) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * move one tick forward, handing off tasks that have come due with their delay cleared
+     *
+     * @return cancelled tasks dropped along the way
+     */
+    public int advance( Consumer<RTPDelayable> due ) {
+        Node ready = null;
+        int dropped = 0;
+        synchronized ( this ) {
+            tick++;
+            Node node = slots[( int ) ( tick & mask )];
+            while ( node != null ) {
+                Node next = node.next;
+                if ( node.task instanceof RTPCancellable && ( (RTPCancellable ) node.task ).isCancelled() ) {
+                    nodes.remove( node.task );
+                    unlink( node );
+                    dropped++;
+                } else if ( node.due <= tick ) {
+                    nodes.remove( node.task );
+                    unlink( node );
+                    node.next = ready;
+                    ready = node;
+                }
+                node = next;
+            }
+        }
+
+        //slots are pushed at the head, so this restores the order tasks were added in
+        for ( ; ready != null; ready = ready.next ) {
+            ready.task.setDelay( 0 );
+            due.accept( ready.task );
+        }
+        return dropped;
+    }
+
+    /**
+     * @return ticks left before this task comes due, or -1 if it isn't waiting here
+     */
+    public synchronized long remaining( RTPDelayable task ) {
+        Node node = nodes.get( task );
+        return ( node == null ) ? -1 : node.due - tick;
+    }
+
+    public synchronized void forEach( Consumer<RTPDelayable> action ) {
+        nodes.keySet().forEach( action );
+    }
+
+    public synchronized void clear() {
+        nodes.clear();
+        Arrays.fill( slots, null );
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized long tick() {
+        return tick;
+    }
+}
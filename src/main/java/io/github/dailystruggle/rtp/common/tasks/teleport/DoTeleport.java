@@ -45,8 +45,25 @@ public final class DoTeleport extends RTPRunnable {
             preActions.forEach( consumer -> consumer.accept( this) );
 
             //todo: safety checks
-            location.world().platform( location );
+            //the platform may be built later, on the thread that owns it, so only teleport once it's there
+            location.world().platform( location ).whenComplete( ( unused, throwable ) -> {
+                if ( isCancelled() ) return;
+                if ( throwable != null ) {
+                    RTP.log( Level.WARNING, "[RTP] failed to place platform for player:" + player.name(), throwable );
+                    new RTPTeleportCancel( player.uuid() ).run();
+                    return;
+                }
+                teleport();
+            } );
+        }
+        catch ( Throwable throwable ) {
+            throwable.printStackTrace();
+            new RTPTeleportCancel( player.uuid() ).run();
+        }
+    }
 
+    private void teleport() {
+        try {
             RTP.getInstance().invulnerablePlayers.put( player.uuid(), System.currentTimeMillis() );
 
             TeleportData teleportData = RTP.getInstance().latestTeleportData.get( player.uuid() );
@@ -6,19 +6,19 @@ import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
 import io.github.dailystruggle.rtp.common.playerData.TeleportData;
 import io.github.dailystruggle.rtp.common.selection.region.ChunkSet;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
-import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.ChunkPriority;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
 import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
-import org.bukkit.Bukkit;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
 public final class LoadChunks extends RTPRunnable {
     public static final List<Consumer<LoadChunks>> preActions = new ArrayList<>();
@@ -33,6 +33,7 @@ public final class LoadChunks extends RTPRunnable {
     private final RTPPlayer player;
     private final RTPLocation location;
     private final Region region;
+    private final long radius;
     public boolean modified = false;
 
     public LoadChunks( RTPCommandSender sender,
@@ -46,9 +47,10 @@ public final class LoadChunks extends RTPRunnable {
 
         ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
         long radius2 = perf.getNumber( PerformanceKeys.viewDistanceTeleport, 0L ).longValue();
+        this.radius = radius2;
         long max = ( radius2 * radius2 * 4 ) + ( 4 * radius2 ) + 1;
 
-        ChunkSet chunkSet = this.region.chunks( location, radius2 );
+        ChunkSet chunkSet = this.region.chunks( location, radius2, ChunkPriority.INTERACTIVE );
 
         TeleportData teleportData = RTP.getInstance().latestTeleportData.get( player.uuid() );
         if ( teleportData == null ) {
@@ -65,7 +67,7 @@ public final class LoadChunks extends RTPRunnable {
 
         if ( max > chunkSet.chunks.size() ) {
             chunkSet.keep( false );
-            chunkSet = teleportData.targetRegion.chunks( location, radius2 );
+            chunkSet = teleportData.targetRegion.chunks( location, radius2, ChunkPriority.INTERACTIVE );
             chunkSet.keep( true );
             modified = true;
         }
@@ -78,6 +80,10 @@ public final class LoadChunks extends RTPRunnable {
             long start = System.currentTimeMillis();
 
             TeleportData teleportData = RTP.getInstance().latestTeleportData.get( player.uuid() );
+            if ( TeleportTimeout.expireIfDue( player.uuid(), teleportData ) ) {
+                postActions.forEach( consumer -> consumer.accept( this) );
+                return;
+            }
             DoTeleport doTeleport = new DoTeleport( sender, player, location, region );
             teleportData.nextTask = doTeleport;
 
@@ -88,11 +94,15 @@ public final class LoadChunks extends RTPRunnable {
             long remainingTime = delay - dT;
             long toTicks = remainingTime / 50;
 
+            //let go of by the cache in the meantime, so ask for them again
             ChunkSet chunkSet = this.region.locAssChunks.get( location );
+            if ( chunkSet == null ) chunkSet = this.region.chunks( location, radius, ChunkPriority.INTERACTIVE );
+            if ( chunkSet == null ) throw new IllegalStateException( "no chunks for location - " + location );
+            boolean loaded = chunkSet.complete.getNow( false );
 
             if ( toTicks < 1 &&
-                    ( sender.hasPermission( "rtp.noDelay.chunks" ) || chunkSet.complete.isDone()) ) {
-                if ( Bukkit.isPrimaryThread() ) {
+                    ( sender.hasPermission( "rtp.noDelay.chunks" ) || loaded ) ) {
+                if ( RTP.serverAccessor.isPrimaryThread() ) {
                     try {
                         doTeleport.run();
                     } catch ( Throwable throwable ) {
@@ -104,19 +114,30 @@ public final class LoadChunks extends RTPRunnable {
                 return;
             }
 
-            if ( !chunkSet.complete.getNow( false) ) {
-                for ( CompletableFuture<RTPChunk> cfChunk : chunkSet.chunks ) {
-                    try {
-                        cfChunk.get();
-                    } catch ( ExecutionException | InterruptedException e ) {
-                        e.printStackTrace();
+            //continue once the chunks are in rather than waiting on them, which could be on the main thread
+            if ( !loaded ) {
+                CompletableFuture<Boolean> chunks = chunkSet.loaded();
+                long generation = TeleportTimeout.generation( teleportData );
+                RTP.futures.register( teleportData, chunks );
+                chunks.whenComplete( ( allLoaded, throwable ) -> {
+                    if ( throwable instanceof CancellationException ) return; //teleport cancelled
+                    //some chunks didn't load, so try somewhere else rather than land next to a hole
+                    if ( throwable != null || !allLoaded ) {
+                        if ( throwable != null ) RTP.log( Level.WARNING, "[RTP] chunks failed to load for player:" + player.name(), throwable );
+                        TeleportTimeout.retry( player.uuid(), teleportData, generation );
+                        return;
                     }
-                }
+                    long remaining = delay - ( System.currentTimeMillis() - lastTime );
+                    doTeleport.setDelay( remaining / 50 );
+                    RTP.getInstance().teleportPipeline.add( doTeleport );
+                } );
+                postActions.forEach( consumer -> consumer.accept( this) );
+                return;
             }
 
             doTeleport.setDelay( toTicks );
 
-            if ( toTicks < 1 && Bukkit.isPrimaryThread() ) doTeleport.run();
+            if ( toTicks < 1 && RTP.serverAccessor.isPrimaryThread() ) doTeleport.run();
             else RTP.getInstance().teleportPipeline.add( doTeleport );
 
             postActions.forEach( consumer -> consumer.accept( this) );
@@ -7,6 +7,7 @@ import io.github.dailystruggle.rtp.common.configuration.enums.MessagesKeys;
 import io.github.dailystruggle.rtp.common.playerData.TeleportData;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
 import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -57,6 +58,20 @@ public final class RTPTeleportCancel extends RTPRunnable {
         RTP.getInstance().processingPlayers.remove( playerId );
     }
 
+    /**
+     * cancel a request's pending stage, taking it out of its pipeline right away if it's waiting on a delay
+     */
+    public static void cancelTask( RTPRunnable task ) {
+        if ( task == null ) return;
+        RTPTaskPipe pipe;
+        if ( task instanceof SetupTeleport ) pipe = RTP.getInstance().setupTeleportPipeline;
+        else if ( task instanceof LoadChunks ) pipe = RTP.getInstance().loadChunksPipeline;
+        else if ( task instanceof DoTeleport ) pipe = RTP.getInstance().teleportPipeline;
+        else pipe = null;
+        if ( pipe != null ) pipe.cancel( task );
+        else task.setCancelled( true );
+    }
+
     public static void message( UUID playerId ) {
         ConfigParser<MessagesKeys> lang = ( ConfigParser<MessagesKeys> ) RTP.configs.getParser( MessagesKeys.class );
         String msg = lang.getConfigValue( MessagesKeys.teleportCancel, "" ).toString();
@@ -77,7 +92,9 @@ public final class RTPTeleportCancel extends RTPRunnable {
         RTPPlayer player = RTP.serverAccessor.getPlayer( playerId );
         if ( player != null && player.isOnline() && player.hasPermission( "rtp.noCancel") ) return;
 
-        data.nextTask.setCancelled( true );
+        cancelTask( data.nextTask );
+        RTP.futures.cancel( data );
+        if ( data.targetRegion != null ) data.targetRegion.dequeue( playerId );
 
         //dump location back onto the pile
 //        if( data.selectedLocation!=null ) data.targetRegion.locationQueue.add( new AbstractMap.SimpleEntry<>( data.selectedLocation,data.attempts) );
@@ -68,7 +68,11 @@ public final class SetupTeleport extends RTPRunnable {
                 RTP.getInstance().latestTeleportData.put( player.uuid(), teleportData );
             }
 
+            if ( TeleportTimeout.expireIfDue( player.uuid(), teleportData ) ) return;
+            TeleportTimeout.start( player.uuid(), teleportData );
+
             teleportData.targetRegion = this.region;
+            teleportData.biomes = biomes;
 
             teleportData.originalLocation = player.getLocation();
 
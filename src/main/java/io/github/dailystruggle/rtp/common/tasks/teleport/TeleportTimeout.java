@@ -0,0 +1,180 @@
+package io.github.dailystruggle.rtp.common.tasks.teleport;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.enums.LoggingKeys;
+import io.github.dailystruggle.rtp.common.configuration.enums.MessagesKeys;
+import io.github.dailystruggle.rtp.common.configuration.enums.PerformanceKeys;
+import io.github.dailystruggle.rtp.common.playerData.TeleportData;
+import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * deadline for one teleport request, checked by each stage on the way and by this task once it passes
+ * <br>a request still short of the teleport by then is pulled from wherever it's waiting and set up again, taking a
+ * cached location if the region has one and a fresh selection otherwise, up to the configured number of retries
+ * <br>a request whose chunks fail to load takes the same retry, without waiting out its deadline
+ */
+public final class TeleportTimeout extends RTPRunnable {
+    public static final AtomicLong timeouts = new AtomicLong();
+    public static final AtomicLong retries = new AtomicLong();
+    public static final AtomicLong failures = new AtomicLong();
+
+    private final UUID playerId;
+    private final TeleportData data;
+    private final long deadline;
+
+    private TeleportTimeout( UUID playerId, TeleportData data, long deadline ) {
+        this.playerId = playerId;
+        this.data = data;
+        this.deadline = deadline;
+        setDelay( ticksUntil( deadline ) );
+    }
+
+    private static long ticksUntil( long deadline ) {
+        return Math.max( 1, ( deadline - System.currentTimeMillis() + 49 ) / 50 );
+    }
+
+    /**
+     * @return time a request gets to reach the teleport after its delay, in millis, 0 for no limit
+     */
+    public static long timeout() {
+        if ( RTP.configs == null ) return 0;
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( perf == null ) return 0;
+        return TimeUnit.SECONDS.toMillis( perf.getNumber( PerformanceKeys.teleportTimeout, 30 ).longValue() );
+    }
+
+    public static long maxRetries() {
+        if ( RTP.configs == null ) return 0;
+        ConfigParser<PerformanceKeys> perf = ( ConfigParser<PerformanceKeys> ) RTP.configs.getParser( PerformanceKeys.class );
+        if ( perf == null ) return 0;
+        return Math.max( 0, perf.getNumber( PerformanceKeys.teleportRetries, 2 ).longValue() );
+    }
+
+    /**
+     * give this request its deadline, if it doesn't have one yet - counted from the end of its delay
+     */
+    public static void start( UUID playerId, TeleportData data ) {
+        if ( data == null || data.completed || data.deadline != 0 ) return;
+        long timeout = timeout();
+        if ( timeout <= 0 ) return;
+        arm( playerId, data, Math.max( System.currentTimeMillis(), data.time + data.delay ) + timeout );
+    }
+
+    private static void arm( UUID playerId, TeleportData data, long deadline ) {
+        data.deadline = deadline;
+        if ( deadline <= 0 ) return;
+        RTP.getInstance().miscAsyncTasks.add( new TeleportTimeout( playerId, data, deadline ) );
+    }
+
+    /**
+     * retry or end this request if its deadline has passed
+     *
+     * @return whether it had, so the calling stage should stop here
+     */
+    public static boolean expireIfDue( UUID playerId, TeleportData data ) {
+        if ( data == null ) return false;
+        synchronized ( data ) {
+            if ( data.completed || data.deadline <= 0 || System.currentTimeMillis() < data.deadline ) return false;
+            data.deadline = -1;
+            data.generation++;
+        }
+        timeouts.incrementAndGet();
+        retryClaimed( playerId, data );
+        return true;
+    }
+
+    /**
+     * @return the request's current attempt, for a stage to hand back to {@link #retry} if it fails later
+     */
+    public static long generation( TeleportData data ) {
+        synchronized ( data ) {
+            return data.generation;
+        }
+    }
+
+    /**
+     * retry this attempt of the request, unless it completed or another stage or its deadline got to it first
+     *
+     * @param generation the attempt the caller saw fail, from {@link #generation}
+     * @return whether this call claimed the retry
+     */
+    public static boolean retry( UUID playerId, TeleportData data, long generation ) {
+        if ( data == null ) return false;
+        synchronized ( data ) {
+            if ( data.completed || data.generation != generation ) return false;
+            data.generation++;
+        }
+        retryClaimed( playerId, data );
+        return true;
+    }
+
+    /**
+     * pull this request from wherever it's waiting and set it up again, or end it once it's out of retries
+     * <br>only for the caller that claimed this attempt
+     */
+    private static void retryClaimed( UUID playerId, TeleportData data ) {
+
+        //pull the request from wherever it was waiting
+        RTPTeleportCancel.cancelTask( data.nextTask );
+        RTP.futures.cancel( data );
+        Region region = data.targetRegion;
+        if ( region != null ) {
+            region.dequeue( playerId );
+            if ( data.selectedLocation != null ) region.removeChunks( data.selectedLocation );
+        }
+
+        RTPPlayer player = RTP.serverAccessor.getPlayer( playerId );
+        if ( player == null || !player.isOnline() || region == null || data.retries >= maxRetries() ) {
+            failures.incrementAndGet();
+            if ( verbose() ) RTP.log( Level.WARNING, "[RTP] teleport failed for player:" + playerId
+                    + " after " + data.retries + " retries" );
+            RTPTeleportCancel.refund( playerId );
+            ConfigParser<MessagesKeys> lang = ( ConfigParser<MessagesKeys> ) RTP.configs.getParser( MessagesKeys.class );
+            String msg = lang.getConfigValue( MessagesKeys.teleportTimeout, "" ).toString();
+            RTP.serverAccessor.sendMessage( playerId, msg );
+            return;
+        }
+
+        data.retries++;
+        retries.incrementAndGet();
+        if ( verbose() ) RTP.log( Level.INFO, "[RTP] retrying teleport for player:" + player.name()
+                + " (" + data.retries + "/" + maxRetries() + ")" );
+
+        //a retried request takes a cached location or selects one on the spot, rather than waiting in line again
+        RTPCommandSender sender = ( data.sender != null ) ? data.sender : player;
+        SetupTeleport setupTeleport = new SetupTeleport( sender, player, region, data.biomes );
+        data.nextTask = setupTeleport;
+        data.selectedLocation = null;
+        long timeout = timeout();
+        arm( playerId, data, ( timeout > 0 ) ? System.currentTimeMillis() + timeout : 0 );
+        RTP.getInstance().setupTeleportPipeline.add( setupTeleport );
+    }
+
+    private static boolean verbose() {
+        ConfigParser<LoggingKeys> logging = ( ConfigParser<LoggingKeys> ) RTP.configs.getParser( LoggingKeys.class );
+        if ( logging == null ) return true;
+        return Boolean.parseBoolean( logging.getConfigValue( LoggingKeys.teleport, false ).toString() );
+    }
+
+    @Override
+    public void run() {
+        //superseded by a newer request or deadline
+        if ( RTP.getInstance().latestTeleportData.get( playerId ) != data || data.deadline != deadline ) return;
+        //ticks can run short of 50ms, so check again later if it's not quite time
+        if ( System.currentTimeMillis() < deadline ) {
+            setDelay( ticksUntil( deadline ) );
+            RTP.getInstance().miscAsyncTasks.add( this );
+            return;
+        }
+        expireIfDue( playerId, data );
+    }
+}
@@ -18,6 +18,7 @@ public final class SyncTaskProcessing extends RTPRunnable {
         RTP.getInstance().cancelTasks.execute( Long.MAX_VALUE );
         if ( isCancelled() ) return;
         RTP.getInstance().chunkCleanupPipeline.execute( availableTime - ( System.nanoTime() - start) );
+        RTP.getInstance().chunkReleases.tick();
         if ( isCancelled() ) return;
         RTP.getInstance().teleportPipeline.execute( availableTime - ( System.nanoTime() - start) );
         if ( isCancelled() ) return;
@@ -0,0 +1,169 @@
+package io.github.dailystruggle.rtp.common.tools;
+
+import java.util.Arrays;
+
+/**
+ * size-bounded least-recently-used biome lookup, keyed by packed quart (4x4x4 block) coordinates
+ * <br>biomes are stored per quart by the game, so every block in one quart shares an entry
+ * <br>keys stay primitive - a probing table maps each key to a slot, and slots form the recency list
+ */
+public final class BiomeCache {
+    private static final int EMPTY = -1;
+
+    private final int capacity;
+    private final long[] slotKeys;
+    private final String[] slotValues;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] table;
+    private final int mask;
+
+    private int size = 0;
+    private int head = EMPTY; //most recently used
+    private int tail = EMPTY; //least recently used
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public BiomeCache( int capacity ) {
+        this.capacity = Math.max( capacity, 1 );
+        slotKeys = new long[this.capacity];
+        slotValues = new String[this.capacity];
+        prev = new int[this.capacity];
+        next = new int[this.capacity];
+        int tableSize = Integer.highestOneBit( this.capacity * 2 - 1 ) << 1;
+        table = new int[tableSize];
+        Arrays.fill( table, EMPTY );
+        mask = tableSize - 1;
+    }
+
+    /**
+     * @return key of the quart containing block x/y/z
+     */
+    public static long key( int x, int y, int z ) {
+        long qx = ( x >> 2 ) & 0xFFFFFFL;
+        long qz = ( z >> 2 ) & 0xFFFFFFL;
+        long qy = ( y >> 2 ) & 0xFFFFL;
+        return ( qx << 40 ) | ( qz << 16 ) | qy;
+    }
+
+    private static int mix( long key ) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return ( int ) ( h ^ ( h >>> 32 ) );
+    }
+
+    /**
+     * @return cached biome, or null on a miss
+     */
+    public synchronized String get( int x, int y, int z ) {
+        long key = key( x, y, z );
+        int i = indexOf( key );
+        if ( i < 0 ) {
+            misses++;
+            return null;
+        }
+        hits++;
+        int slot = table[i];
+        moveToHead( slot );
+        return slotValues[slot];
+    }
+
+    public synchronized void put( int x, int y, int z, String biome ) {
+        if ( biome == null ) return;
+        long key = key( x, y, z );
+        int i = indexOf( key );
+        if ( i >= 0 ) {
+            int slot = table[i];
+            slotValues[slot] = biome;
+            moveToHead( slot );
+            return;
+        }
+
+        int slot;
+        if ( size < capacity ) {
+            slot = size++;
+        } else {
+            slot = tail;
+            unlink( slot );
+            removeFromTable( slotKeys[slot] );
+        }
+        slotKeys[slot] = key;
+        slotValues[slot] = biome;
+        linkHead( slot );
+
+        int j = mix( key ) & mask;
+        while ( table[j] != EMPTY ) j = ( j + 1 ) & mask;
+        table[j] = slot;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill( table, EMPTY );
+        Arrays.fill( slotValues, null );
+        size = 0;
+        head = EMPTY;
+        tail = EMPTY;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    private int indexOf( long key ) {
+        int i = mix( key ) & mask;
+        while ( table[i] != EMPTY ) {
+            if ( slotKeys[table[i]] == key ) return i;
+            i = ( i + 1 ) & mask;
+        }
+        return -1;
+    }
+
+    private void removeFromTable( long key ) {
+        int gap = indexOf( key );
+        if ( gap < 0 ) return;
+
+        //shift following entries back so probe chains stay unbroken
+        int j = gap;
+        while ( true ) {
+            j = ( j + 1 ) & mask;
+            if ( table[j] == EMPTY ) break;
+            int home = mix( slotKeys[table[j]] ) & mask;
+            boolean movable = ( gap <= j ) ? ( home <= gap || home > j ) : ( home <= gap && home > j );
+            if ( movable ) {
+                table[gap] = table[j];
+                gap = j;
+            }
+        }
+        table[gap] = EMPTY;
+    }
+
+    private void moveToHead( int slot ) {
+        if ( slot == head ) return;
+        unlink( slot );
+        linkHead( slot );
+    }
+
+    private void unlink( int slot ) {
+        int p = prev[slot];
+        int n = next[slot];
+        if ( p == EMPTY ) head = n;
+        else next[p] = n;
+        if ( n == EMPTY ) tail = p;
+        else prev[n] = p;
+    }
+
+    private void linkHead( int slot ) {
+        prev[slot] = EMPTY;
+        next[slot] = head;
+        if ( head != EMPTY ) prev[head] = slot;
+        head = slot;
+        if ( tail == EMPTY ) tail = slot;
+    }
+}
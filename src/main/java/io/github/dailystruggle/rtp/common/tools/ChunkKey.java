@@ -0,0 +1,29 @@
+package io.github.dailystruggle.rtp.common.tools;
+
+/**
+ * packs chunk x/z into a single long, so chunk lookups don't need boxed or list keys
+ */
+public final class ChunkKey {
+    private ChunkKey() {
+
+    }
+
+    public static long pack( int x, int z ) {
+        return ( (long ) x << 32 ) | ( z & 0xFFFFFFFFL );
+    }
+
+    public static int x( long key ) {
+        return ( int ) ( key >> 32 );
+    }
+
+    public static int z( long key ) {
+        return ( int ) key;
+    }
+
+    /**
+     * @return key of the chunk containing block x/z
+     */
+    public static long ofBlock( int blockX, int blockZ ) {
+        return pack( blockX >> 4, blockZ >> 4 );
+    }
+}
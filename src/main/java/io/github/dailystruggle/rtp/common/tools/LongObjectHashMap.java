@@ -0,0 +1,156 @@
+package io.github.dailystruggle.rtp.common.tools;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * open-addressing hash map from primitive long keys to non-null values, using linear probing
+ * <br>no boxing on lookup, and no entry objects
+ * <br>not thread safe - callers synchronize where needed
+ *
+ * @param <V> value type
+ */
+public final class LongObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongObjectHashMap() {
+        this( 16 );
+    }
+
+    public LongObjectHashMap( int expectedSize ) {
+        int capacity = Integer.highestOneBit( Math.max( (int ) ( expectedSize / LOAD_FACTOR ), 8 ) - 1 ) << 1;
+        allocate( capacity );
+    }
+
+    private static int mix( long key ) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return ( int ) ( h ^ ( h >>> 32 ) );
+    }
+
+    private void allocate( int capacity ) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = ( int ) ( capacity * LOAD_FACTOR );
+    }
+
+    private int indexOf( long key ) {
+        int i = mix( key ) & mask;
+        while ( values[i] != null ) {
+            if ( keys[i] == key ) return i;
+            i = ( i + 1 ) & mask;
+        }
+        return -1;
+    }
+
+    public V get( long key ) {
+        int i = indexOf( key );
+        return ( i < 0 ) ? null : ( V ) values[i];
+    }
+
+    public boolean containsKey( long key ) {
+        return indexOf( key ) >= 0;
+    }
+
+    /**
+     * @return previous value, or null
+     */
+    public V put( long key, V value ) {
+        if ( value == null ) throw new IllegalArgumentException( "null value" );
+        int i = mix( key ) & mask;
+        while ( values[i] != null ) {
+            if ( keys[i] == key ) {
+                V old = ( V ) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = ( i + 1 ) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if ( ++size > resizeAt ) rehash( ( mask + 1 ) << 1 );
+        return null;
+    }
+
+    public V computeIfAbsent( long key, LongFunction<V> function ) {
+        V value = get( key );
+        if ( value != null ) return value;
+        value = function.apply( key );
+        if ( value != null ) put( key, value );
+        return value;
+    }
+
+    /**
+     * @return removed value, or null
+     */
+    public V remove( long key ) {
+        int i = indexOf( key );
+        if ( i < 0 ) return null;
+        V old = ( V ) values[i];
+
+        //shift following entries back so probe chains stay unbroken
+        int gap = i;
+        int j = i;
+        while ( true ) {
+            j = ( j + 1 ) & mask;
+            if ( values[j] == null ) break;
+            int home = mix( keys[j] ) & mask;
+            boolean movable = ( gap <= j ) ? ( home <= gap || home > j ) : ( home <= gap && home > j );
+            if ( movable ) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if ( size == 0 ) return;
+        Arrays.fill( values, null );
+        size = 0;
+    }
+
+    public void forEach( BiConsumer<Long, V> consumer ) {
+        for ( int i = 0; i < values.length; i++ ) {
+            if ( values[i] != null ) consumer.accept( keys[i], ( V ) values[i] );
+        }
+    }
+
+    public void forEachValue( Consumer<V> consumer ) {
+        for ( Object value : values ) {
+            if ( value != null ) consumer.accept( ( V ) value );
+        }
+    }
+
+    private void rehash( int capacity ) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate( capacity );
+        for ( int i = 0; i < oldValues.length; i++ ) {
+            if ( oldValues[i] == null ) continue;
+            int j = mix( oldKeys[i] ) & mask;
+            while ( values[j] != null ) j = ( j + 1 ) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+}
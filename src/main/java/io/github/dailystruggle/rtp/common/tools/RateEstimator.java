@@ -0,0 +1,62 @@
+package io.github.dailystruggle.rtp.common.tools;
+
+import java.util.function.LongSupplier;
+
+/**
+ * event rate with exponential decay, so recent events weigh the most
+ * <br>at a steady rate r, the decayed count settles at r * halfLife / ln2
+ */
+public final class RateEstimator {
+    private static final double LN2 = Math.log( 2 );
+
+    private final double halfLifeSeconds;
+    private final LongSupplier nanoClock;
+    private double count = 0;
+    private long last;
+
+    public RateEstimator( double halfLifeSeconds ) {
+        this( halfLifeSeconds, System::nanoTime );
+    }
+
+    /**
+     * @param nanoClock time source in nanoseconds, replaceable for tests
+     */
+    public RateEstimator( double halfLifeSeconds, LongSupplier nanoClock ) {
+        this.halfLifeSeconds = halfLifeSeconds;
+        this.nanoClock = nanoClock;
+        this.last = nanoClock.getAsLong();
+    }
+
+    private void decay() {
+        long now = nanoClock.getAsLong();
+        long dt = now - last;
+        if ( dt <= 0 ) return;
+        count *= Math.pow( 0.5, dt / 1_000_000_000.0 / halfLifeSeconds );
+        last = now;
+    }
+
+    public synchronized void record() {
+        record( 1 );
+    }
+
+    public synchronized void record( double events ) {
+        decay();
+        count += events;
+    }
+
+    /**
+     * @return estimated events per second
+     */
+    public synchronized double rate() {
+        decay();
+        return count * LN2 / halfLifeSeconds;
+    }
+
+    /**
+     * @return decayed event count, about how many events happened within the last half-life / ln2 seconds
+     */
+    public synchronized double count() {
+        decay();
+        return count;
+    }
+}
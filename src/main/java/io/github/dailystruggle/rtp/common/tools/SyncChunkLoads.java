@@ -0,0 +1,50 @@
+package io.github.dailystruggle.rtp.common.tools;
+
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.ConfigParser;
+import io.github.dailystruggle.rtp.common.configuration.enums.LoggingKeys;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * chunk loads the main thread did in place, or would have waited on, across all worlds
+ * <br>each one is counted, and logged with a stack trace if sync_chunk_loads is on, pointing to the callers left to fix
+ */
+public final class SyncChunkLoads {
+    public static final AtomicLong count = new AtomicLong();
+
+    private SyncChunkLoads() {
+
+    }
+
+    /**
+     * @param what world and chunk, for the log
+     */
+    public static void record( String what ) {
+        count.incrementAndGet();
+        ConfigParser<LoggingKeys> logging = ( RTP.configs == null ) ? null : ( ConfigParser<LoggingKeys> ) RTP.configs.getParser( LoggingKeys.class );
+        if ( logging != null && Boolean.parseBoolean( logging.getConfigValue( LoggingKeys.sync_chunk_loads, false ).toString() ) ) {
+            RTP.log( Level.WARNING, "[RTP] synchronous chunk load on the main thread - " + what, new Throwable( "synchronous chunk load" ) );
+        }
+    }
+
+    /**
+     * wait on a chunk from one of the remaining blocking paths
+     * <br>never on the main thread, which hands its loads off - waiting there would hang the server, so a chunk that
+     * isn't in yet is recorded instead
+     *
+     * @return the chunk, or null if it isn't in yet and this is the main thread
+     */
+    public static RTPChunk await( CompletableFuture<RTPChunk> future, RTPWorld world, int cx, int cz ) throws InterruptedException, ExecutionException {
+        if ( !future.isDone() && RTP.serverAccessor.isPrimaryThread() ) {
+            record( "world:" + world.name() + " chunk:" + cx + "," + cz );
+            return null;
+        }
+        return future.get();
+    }
+}
@@ -0,0 +1,39 @@
+import io.github.dailystruggle.rtp.common.tools.BiomeCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BiomeCacheTest {
+    @Test
+    void sameQuartSharesEntry() {
+        BiomeCache cache = new BiomeCache( 16 );
+        cache.put( 0, 64, 0, "PLAINS" );
+        Assertions.assertEquals( "PLAINS", cache.get( 3, 67, 3 ) );
+        Assertions.assertNull( cache.get( 4, 64, 0 ) );
+        Assertions.assertNull( cache.get( -1, 64, 0 ) );
+        Assertions.assertEquals( 1, cache.hits() );
+        Assertions.assertEquals( 2, cache.misses() );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        BiomeCache cache = new BiomeCache( 2 );
+        cache.put( 0, 0, 0, "A" );
+        cache.put( 16, 0, 0, "B" );
+        cache.get( 0, 0, 0 ); //A is now more recent than B
+        cache.put( 32, 0, 0, "C" );
+
+        Assertions.assertEquals( 2, cache.size() );
+        Assertions.assertEquals( "A", cache.get( 0, 0, 0 ) );
+        Assertions.assertNull( cache.get( 16, 0, 0 ) );
+        Assertions.assertEquals( "C", cache.get( 32, 0, 0 ) );
+    }
+
+    @Test
+    void clearDropsEverything() {
+        BiomeCache cache = new BiomeCache( 8 );
+        for ( int i = 0; i < 8; i++ ) cache.put( i * 16, 0, 0, "B" + i );
+        cache.clear();
+        Assertions.assertEquals( 0, cache.size() );
+        for ( int i = 0; i < 8; i++ ) Assertions.assertNull( cache.get( i * 16, 0, 0 ) );
+    }
+}
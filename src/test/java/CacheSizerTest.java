@@ -0,0 +1,43 @@
+import io.github.dailystruggle.rtp.common.selection.region.CacheSizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheSizerTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void fallsBackUntilARefillIsTimed() {
+        CacheSizer sizer = new CacheSizer( new AtomicLong()::get );
+        Assertions.assertEquals( 10, sizer.target( 2, 1, 50, 10 ) );
+        Assertions.assertEquals( 5, sizer.target( 2, 1, 5, 10 ) );
+    }
+
+    @Test
+    void followsLittlesLaw() {
+        AtomicLong clock = new AtomicLong();
+        CacheSizer sizer = new CacheSizer( clock::get );
+        //1 request per second for 10 half-lives
+        for ( int i = 0; i < 600; i++ ) {
+            clock.addAndGet( SECOND );
+            sizer.recordRequest();
+        }
+        sizer.recordRefill( 4 * SECOND );
+        //1/s * 4s * 2, give or take the estimate
+        long target = sizer.target( 2, 1, 50, 10 );
+        Assertions.assertTrue( target >= 8 && target <= 9, "target " + target );
+
+        //a busy hour goes quiet
+        clock.addAndGet( 3600 * SECOND );
+        Assertions.assertEquals( 1, sizer.target( 2, 1, 50, 10 ) );
+    }
+
+    @Test
+    void refillTimeIsAveraged() {
+        CacheSizer sizer = new CacheSizer( new AtomicLong()::get );
+        sizer.recordRefill( 10 * SECOND );
+        sizer.recordRefill( 0 );
+        Assertions.assertEquals( 10 * ( 1 - CacheSizer.REFILL_WEIGHT ), sizer.refillSeconds(), 1e-9 );
+    }
+}
@@ -0,0 +1,74 @@
+import commonTestImpl.substitutions.TestRTPChunk;
+import commonTestImpl.substitutions.TestRTPWorld;
+import io.github.dailystruggle.rtp.common.tasks.ChunkReleaseQueue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkReleaseQueueTest {
+    private static final class CountingChunk extends TestRTPChunk {
+        private final AtomicInteger unloads;
+
+        private CountingChunk( TestRTPWorld world, int x, int z, AtomicInteger unloads ) {
+            super( world, x, z );
+            this.unloads = unloads;
+        }
+
+        @Override
+        public void unload() {
+            unloads.incrementAndGet();
+        }
+    }
+
+    @Test
+    void unloadsAfterGracePeriod() {
+        TestRTPWorld world = new TestRTPWorld();
+        AtomicInteger unloads = new AtomicInteger();
+        ChunkReleaseQueue queue = new ChunkReleaseQueue( 3, 0 );
+        queue.unload( new CountingChunk( world, 1, 2, unloads ) );
+        queue.tick();
+        queue.tick();
+        Assertions.assertEquals( 0, unloads.get() );
+        queue.tick();
+        Assertions.assertEquals( 1, unloads.get() );
+        Assertions.assertEquals( 0, queue.size() );
+    }
+
+    @Test
+    void requestWithinGraceCancels() {
+        TestRTPWorld world = new TestRTPWorld();
+        AtomicInteger unloads = new AtomicInteger();
+        ChunkReleaseQueue queue = new ChunkReleaseQueue( 3, 0 );
+        queue.unload( new CountingChunk( world, 1, 2, unloads ) );
+        queue.tick();
+        queue.requested( world, 1, 2 );
+        for ( int i = 0; i < 5; i++ ) queue.tick();
+        Assertions.assertEquals( 0, unloads.get() );
+        Assertions.assertEquals( 1, queue.avoided() );
+    }
+
+    @Test
+    void keepTakesBackForget() {
+        TestRTPWorld world = new TestRTPWorld();
+        ChunkReleaseQueue queue = new ChunkReleaseQueue( 3, 0 );
+        queue.forget( world, 4, 4 );
+        Assertions.assertTrue( queue.kept( world, 4, 4 ) );
+        Assertions.assertFalse( queue.kept( world, 4, 4 ) );
+        Assertions.assertEquals( 0, queue.size() );
+    }
+
+    @Test
+    void budgetSpreadsReleases() {
+        TestRTPWorld world = new TestRTPWorld();
+        AtomicInteger unloads = new AtomicInteger();
+        ChunkReleaseQueue queue = new ChunkReleaseQueue( 1, 2 );
+        for ( int i = 0; i < 5; i++ ) queue.unload( new CountingChunk( world, i, 0, unloads ) );
+        queue.tick();
+        Assertions.assertEquals( 2, unloads.get() );
+        queue.tick();
+        Assertions.assertEquals( 4, unloads.get() );
+        queue.tick();
+        Assertions.assertEquals( 5, unloads.get() );
+    }
+}
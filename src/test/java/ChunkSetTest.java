@@ -0,0 +1,54 @@
+import commonTestImpl.substitutions.TestRTPChunk;
+import io.github.dailystruggle.rtp.common.selection.region.ChunkSet;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class ChunkSetTest {
+    private static List<CompletableFuture<RTPChunk>> pending( int count ) {
+        List<CompletableFuture<RTPChunk>> res = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) res.add( new CompletableFuture<>() );
+        return res;
+    }
+
+    @Test
+    void completesOnceEveryChunkLoads() {
+        List<CompletableFuture<RTPChunk>> chunks = pending( 3 );
+        ChunkSet chunkSet = new ChunkSet( chunks, new CompletableFuture<>() );
+        chunks.get( 0 ).complete( new TestRTPChunk() );
+        chunks.get( 2 ).complete( new TestRTPChunk() );
+        Assertions.assertFalse( chunkSet.complete.isDone() );
+
+        chunks.get( 1 ).complete( new TestRTPChunk() );
+        Assertions.assertTrue( chunkSet.complete.getNow( false ) );
+        Assertions.assertEquals( 0, chunkSet.failed() );
+    }
+
+    @Test
+    void partialFailureStillCompletes() {
+        List<CompletableFuture<RTPChunk>> chunks = pending( 3 );
+        ChunkSet chunkSet = new ChunkSet( chunks, new CompletableFuture<>() );
+        chunks.get( 0 ).completeExceptionally( new IllegalStateException() );
+        chunks.get( 1 ).complete( null );
+        chunks.get( 2 ).complete( new TestRTPChunk() );
+        Assertions.assertFalse( chunkSet.complete.getNow( true ) );
+        Assertions.assertEquals( 2, chunkSet.failed() );
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheSet() {
+        List<CompletableFuture<RTPChunk>> chunks = pending( 1 );
+        ChunkSet chunkSet = new ChunkSet( chunks, new CompletableFuture<>() );
+        CompletableFuture<Boolean> mine = chunkSet.loaded();
+        CompletableFuture<Boolean> theirs = chunkSet.loaded();
+        mine.cancel( false );
+
+        chunks.get( 0 ).complete( new TestRTPChunk() );
+        Assertions.assertTrue( theirs.getNow( false ) );
+        Assertions.assertTrue( chunkSet.complete.getNow( false ) );
+    }
+}
@@ -0,0 +1,46 @@
+import io.github.dailystruggle.rtp.common.tasks.FutureRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class FutureRegistryTest {
+    @Test
+    void completedFuturesLeaveOnTheirOwn() {
+        FutureRegistry registry = new FutureRegistry();
+        Object owner = new Object();
+        CompletableFuture<Boolean> a = new CompletableFuture<>();
+        CompletableFuture<Boolean> b = new CompletableFuture<>();
+        FutureRegistry.Handle handle = registry.register( owner, a );
+        registry.register( owner, b );
+        registry.register( owner, CompletableFuture.completedFuture( true ) );
+        Assertions.assertEquals( 2, registry.inFlight( owner ) );
+
+        a.complete( true );
+        Assertions.assertFalse( handle.isOpen() );
+        Assertions.assertEquals( 1, registry.inFlight() );
+        b.complete( false );
+        Assertions.assertEquals( 0, registry.inFlight() );
+        Assertions.assertTrue( registry.inFlightByOwner().isEmpty() );
+    }
+
+    @Test
+    void cancelOnlyTouchesItsOwner() {
+        FutureRegistry registry = new FutureRegistry();
+        Object region = new Object();
+        Object teleport = new Object();
+        CompletableFuture<Boolean> regionFuture = new CompletableFuture<>();
+        CompletableFuture<Boolean> teleportFuture = new CompletableFuture<>();
+        registry.register( region, regionFuture );
+        registry.register( teleport, teleportFuture );
+
+        Assertions.assertEquals( 1, registry.cancel( teleport ) );
+        Assertions.assertTrue( teleportFuture.isCancelled() );
+        Assertions.assertFalse( regionFuture.isDone() );
+        Assertions.assertEquals( 1, registry.inFlightByOwner().get( region ) );
+
+        registry.completeAll();
+        Assertions.assertTrue( regionFuture.isDone() );
+        Assertions.assertEquals( 0, registry.inFlight() );
+    }
+}
@@ -0,0 +1,117 @@
+import io.github.dailystruggle.rtp.common.tasks.PriorityTaskPipe;
+import io.github.dailystruggle.rtp.common.tasks.RTPPrioritized;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PriorityTaskPipeTest {
+    private static final AtomicLong clock = new AtomicLong();
+
+    //advances the fake clock by its cost when run
+    private static class Task implements Runnable, RTPPrioritized {
+        private final String name;
+        private final int priority;
+        private final long cost;
+        private final List<String> log;
+
+        private Task( String name, int priority, long cost, List<String> log ) {
+            this.name = name;
+            this.priority = priority;
+            this.cost = cost;
+            this.log = log;
+        }
+
+        @Override
+        public void run() {
+            clock.addAndGet( cost );
+            log.add( name );
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+
+    private static final class Cheap extends Task {
+        private Cheap( int priority, List<String> log ) {
+            super( "cheap", priority, 10, log );
+        }
+    }
+
+    private static final class Expensive extends Task {
+        private Expensive( int priority, List<String> log ) {
+            super( "expensive", priority, 100, log );
+        }
+    }
+
+    @Test
+    void higherPriorityRunsFirst() {
+        List<String> log = new ArrayList<>();
+        PriorityTaskPipe pipe = new PriorityTaskPipe( clock::get );
+        pipe.add( new Task( "low", 0, 1, log ) );
+        pipe.add( new Task( "high", 2, 1, log ) );
+        pipe.add( new Task( "mid", 1, 1, log ) );
+        pipe.execute( Long.MAX_VALUE );
+        Assertions.assertEquals( List.of( "high", "mid", "low" ), log );
+        Assertions.assertEquals( 0, pipe.size() );
+    }
+
+    @Test
+    void staysWithinBudgetUnderMixedLoad() {
+        List<String> log = new ArrayList<>();
+        PriorityTaskPipe pipe = new PriorityTaskPipe( clock::get );
+
+        //one of each to learn their costs
+        pipe.add( new Expensive( 1, log ) );
+        pipe.add( new Cheap( 0, log ) );
+        pipe.execute( Long.MAX_VALUE );
+        Assertions.assertEquals( 100, pipe.avgTime( Expensive.class ) );
+        Assertions.assertEquals( 10, pipe.avgTime( Cheap.class ) );
+
+        for ( int i = 0; i < 20; i++ ) {
+            pipe.add( new Expensive( 1, log ) );
+            pipe.add( new Cheap( 0, log ) );
+        }
+
+        long budget = 250;
+        while ( pipe.size() > 0 ) {
+            log.clear();
+            long start = clock.get();
+            pipe.execute( budget );
+            long spent = clock.get() - start;
+            Assertions.assertFalse( log.isEmpty() );
+            //the first task of a pass always runs, anything after it has to fit
+            Assertions.assertTrue( spent <= Math.max( budget, 100 ), "spent " + spent + " of " + budget );
+            int firstCheap = log.indexOf( "cheap" );
+            if ( firstCheap >= 0 ) Assertions.assertFalse( log.subList( firstCheap, log.size() ).contains( "expensive" ) );
+        }
+    }
+
+    @Test
+    void cheapTasksFillWhatIsLeft() {
+        List<String> log = new ArrayList<>();
+        PriorityTaskPipe pipe = new PriorityTaskPipe( clock::get );
+        pipe.add( new Expensive( 1, log ) );
+        pipe.add( new Cheap( 0, log ) );
+        pipe.execute( Long.MAX_VALUE );
+        log.clear();
+
+        for ( int i = 0; i < 3; i++ ) pipe.add( new Expensive( 1, log ) );
+        for ( int i = 0; i < 10; i++ ) pipe.add( new Cheap( 0, log ) );
+
+        //two expensive tasks fit, the third is passed over for five cheap ones
+        pipe.execute( 250 );
+        Assertions.assertEquals( 2, log.stream().filter( "expensive"::equals ).count() );
+        Assertions.assertEquals( 5, log.stream().filter( "cheap"::equals ).count() );
+        Assertions.assertEquals( 6, pipe.size() );
+
+        //the passed over task keeps its priority on the next pass
+        log.clear();
+        pipe.execute( 250 );
+        Assertions.assertEquals( "expensive", log.get( 0 ) );
+    }
+}
@@ -0,0 +1,75 @@
+import commonTestImpl.TestRTPScheduler;
+import commonTestImpl.substitutions.TestRTPPlayer;
+import commonTestImpl.substitutions.TestRTPWorld;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RTPSchedulerTest {
+    @Test
+    void chunkWorkRunsOnTheOwningRegion() {
+        TestRTPScheduler scheduler = new TestRTPScheduler();
+        RTPWorld world = new TestRTPWorld();
+        String owner = TestRTPScheduler.region( world, 100, -40 );
+
+        CompletableFuture<String> fromGlobal = new CompletableFuture<>();
+        scheduler.runAs( TestRTPScheduler.GLOBAL, () -> scheduler.supplyAt( world, 100, -40, scheduler::current )
+                .thenAccept( fromGlobal::complete ) );
+        Assertions.assertFalse( fromGlobal.isDone() );
+        scheduler.tick();
+        Assertions.assertEquals( owner, fromGlobal.getNow( null ) );
+
+        //already on the owner, so no waiting for a tick
+        AtomicReference<String> inline = new AtomicReference<>();
+        scheduler.runAs( owner, () -> scheduler.executeAt( world, 101, -39, () -> inline.set( scheduler.current() ) ) );
+        Assertions.assertEquals( owner, inline.get() );
+        Assertions.assertEquals( 0, scheduler.pending() );
+    }
+
+    @Test
+    void supplyAtPassesFailuresOn() {
+        TestRTPScheduler scheduler = new TestRTPScheduler();
+        CompletableFuture<Object> future = scheduler.supplyAt( new TestRTPWorld(), 0, 0, () -> {
+            throw new IllegalStateException();
+        } );
+        scheduler.tick();
+        Assertions.assertTrue( future.isCompletedExceptionally() );
+    }
+
+    @Test
+    void timersRepeatUntilCancelled() {
+        TestRTPScheduler scheduler = new TestRTPScheduler();
+        AtomicInteger runs = new AtomicInteger();
+        RTPScheduler.Task timer = scheduler.runGlobalTimer( runs::incrementAndGet, 2, 3 );
+        for ( int i = 0; i < 9; i++ ) scheduler.tick();
+        //ticks 2, 5 and 8
+        Assertions.assertEquals( 3, runs.get() );
+
+        timer.cancel();
+        for ( int i = 0; i < 9; i++ ) scheduler.tick();
+        Assertions.assertEquals( 3, runs.get() );
+        Assertions.assertTrue( timer.isCancelled() );
+    }
+
+    @Test
+    void playerWorkIsRetiredOnceTheyLeave() {
+        TestRTPScheduler scheduler = new TestRTPScheduler();
+        AtomicInteger ran = new AtomicInteger();
+        AtomicInteger retired = new AtomicInteger();
+        scheduler.runFor( new TestRTPPlayer(), ran::incrementAndGet, retired::incrementAndGet, 0 );
+        scheduler.runFor( new TestRTPPlayer() {
+            @Override
+            public boolean isOnline() {
+                return false;
+            }
+        }, ran::incrementAndGet, retired::incrementAndGet, 0 );
+        scheduler.tick();
+        Assertions.assertEquals( 1, ran.get() );
+        Assertions.assertEquals( 1, retired.get() );
+    }
+}
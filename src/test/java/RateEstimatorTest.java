@@ -0,0 +1,32 @@
+import io.github.dailystruggle.rtp.common.tools.RateEstimator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateEstimatorTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void halvesEachHalfLife() {
+        AtomicLong clock = new AtomicLong();
+        RateEstimator estimator = new RateEstimator( 10, clock::get );
+        estimator.record( 8 );
+        clock.addAndGet( 10 * SECOND );
+        Assertions.assertEquals( 4, estimator.count(), 1e-9 );
+        clock.addAndGet( 20 * SECOND );
+        Assertions.assertEquals( 1, estimator.count(), 1e-9 );
+    }
+
+    @Test
+    void settlesAtSteadyRate() {
+        AtomicLong clock = new AtomicLong();
+        RateEstimator estimator = new RateEstimator( 30, clock::get );
+        //2 events per second for 10 half-lives
+        for ( int i = 0; i < 600; i++ ) {
+            clock.addAndGet( SECOND / 2 );
+            estimator.record();
+        }
+        Assertions.assertEquals( 2, estimator.rate(), 0.05 );
+    }
+}
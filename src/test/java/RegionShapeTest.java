@@ -0,0 +1,95 @@
+import commonTestImpl.TestRTPServerAccessor;
+import commonTestImpl.substitutions.TestRTPWorld;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.configuration.enums.RegionKeys;
+import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.selection.region.selectors.memory.shapes.enums.GenericMemoryShapeParams;
+import io.github.dailystruggle.rtp.common.selection.region.selectors.shapes.Shape;
+import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RegionShapeTest {
+    private Region region;
+
+    @BeforeEach
+    void setup() {
+        RTP.serverAccessor = new TestRTPServerAccessor();
+        //initialize to create config files
+        RTP rtp = new RTP();
+
+        int i = 0;
+        while ( rtp.startupTasks.size()>0 ) {
+            rtp.startupTasks.execute( Long.MAX_VALUE );
+            i++;
+            if( i>50 ) break;
+        }
+
+        region = RTP.selectionAPI.getRegion( new TestRTPWorld() );
+        Assertions.assertNotNull( region );
+    }
+
+    private static Shape<?> square( long radius ) {
+        Shape<?> shape = ( Shape<?> ) RTP.factoryMap.get( RTP.factoryNames.shape ).get( "SQUARE" );
+        shape.set( GenericMemoryShapeParams.radius, radius );
+        return shape;
+    }
+
+    private void followBorder( AtomicLong borderRadius ) {
+        RTP.serverAccessor.setWorldBorderFunction( worldName -> new WorldBorder(
+                () -> square( borderRadius.get() ),
+                location -> true ) );
+        region.set( RegionKeys.worldBorderOverride, true );
+    }
+
+    @Test
+    void shapeIsMemoized() {
+        Shape<?> first = region.getShape();
+        Assertions.assertSame( first, region.getShape() );
+    }
+
+    @Test
+    void setInvalidatesShape() {
+        Shape<?> before = region.getShape();
+        Shape<?> replacement = square( 1234 );
+        region.set( RegionKeys.shape, replacement );
+        Shape<?> after = region.getShape();
+        Assertions.assertNotSame( before, after );
+        Assertions.assertSame( replacement, after );
+    }
+
+    @Test
+    void reloadInvalidatesShape() {
+        AtomicLong borderRadius = new AtomicLong( 100 );
+        followBorder( borderRadius );
+
+        Shape<?> first = region.getShape();
+        borderRadius.set( 300 );
+        Assertions.assertSame( first, region.getShape() );
+
+        Region.invalidateShapes();
+        Assertions.assertEquals( 300L, region.getShape().getNumber( GenericMemoryShapeParams.radius, 0L ).longValue() );
+    }
+
+    @Test
+    void borderChangeInvalidatesShape() {
+        AtomicLong borderRadius = new AtomicLong( 100 );
+        followBorder( borderRadius );
+
+        Shape<?> first = region.getShape();
+        Assertions.assertEquals( 100L, first.getNumber( GenericMemoryShapeParams.radius, 0L ).longValue() );
+
+        //border moved, but nothing announced it yet
+        borderRadius.set( 200 );
+        Assertions.assertSame( first, region.getShape() );
+
+        //the change event takes effect on the very next lookup
+        RTP.selectionAPI.onWorldBorderChange( region.getWorld().name() );
+        Shape<?> second = region.getShape();
+        Assertions.assertNotSame( first, second );
+        Assertions.assertEquals( 200L, second.getNumber( GenericMemoryShapeParams.radius, 0L ).longValue() );
+    }
+}
@@ -0,0 +1,51 @@
+import io.github.dailystruggle.rtp.common.tasks.StageExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StageExecutorTest {
+    private static void runBlockingTasks( StageExecutor executor, int tasks, AtomicInteger maxRunning ) throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch( tasks );
+        for ( int i = 0; i < tasks; i++ ) {
+            executor.execute( () -> {
+                maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                try {
+                    Thread.sleep( 5 );
+                } catch ( InterruptedException ignored ) {
+
+                }
+                running.decrementAndGet();
+                done.countDown();
+            } );
+        }
+        Assertions.assertTrue( done.await( 10, TimeUnit.SECONDS ) );
+        //the last tasks count down just before they're marked finished
+        while ( executor.active() > 0 ) Thread.sleep( 1 );
+    }
+
+    @Test
+    void staysUnderItsLimit() throws InterruptedException {
+        StageExecutor executor = new StageExecutor( "test", 4, false );
+        AtomicInteger maxRunning = new AtomicInteger();
+        runBlockingTasks( executor, 64, maxRunning );
+        Assertions.assertEquals( 4, maxRunning.get() );
+        Assertions.assertEquals( 64, executor.completed() );
+        Assertions.assertTrue( executor.peak() <= 4 );
+        executor.shutdown();
+    }
+
+    @Test
+    void virtualThreadsWhereAvailable() throws InterruptedException {
+        StageExecutor executor = new StageExecutor( "test", 16, true );
+        Assertions.assertEquals( StageExecutor.virtualThreadsAvailable(), executor.isVirtual() );
+        AtomicInteger maxRunning = new AtomicInteger();
+        runBlockingTasks( executor, 64, maxRunning );
+        Assertions.assertTrue( maxRunning.get() <= 16 );
+        Assertions.assertEquals( 0, executor.queued() );
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,71 @@
+import io.github.dailystruggle.rtp.common.tasks.TickGovernor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TickGovernorTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+    private static void tick( TickGovernor governor, AtomicLong clock, long busyMs, long tickMs ) {
+        governor.tickStart();
+        clock.addAndGet( busyMs * MS );
+        governor.tickEnd();
+        clock.addAndGet( ( tickMs - busyMs ) * MS );
+    }
+
+    @Test
+    void budgetsFollowFreeTime() {
+        AtomicLong clock = new AtomicLong();
+        TickGovernor governor = new TickGovernor( clock::get );
+        for ( int i = 0; i < 100; i++ ) tick( governor, clock, 20, 50 );
+        Assertions.assertEquals( 0, governor.debt() );
+        Assertions.assertEquals( 30 * MS, governor.headroom(), MS );
+        Assertions.assertEquals( 15 * MS, governor.syncBudget(), MS );
+        Assertions.assertEquals( governor.headroom(), governor.asyncBudget() );
+    }
+
+    @Test
+    void longTicksLeaveDebtUntilMadeUp() {
+        AtomicLong clock = new AtomicLong();
+        TickGovernor governor = new TickGovernor( clock::get );
+        tick( governor, clock, 20, 50 );
+        tick( governor, clock, 120, 120 );
+        tick( governor, clock, 20, 50 );
+        governor.tickStart();
+        Assertions.assertEquals( 70 * MS, governor.debt() );
+        Assertions.assertEquals( 0, governor.syncBudget() );
+
+        //the server catches up with back to back ticks
+        clock.addAndGet( 15 * MS );
+        for ( int i = 0; i < 3; i++ ) {
+            governor.tickStart();
+            clock.addAndGet( 15 * MS );
+        }
+        Assertions.assertEquals( 0, governor.debt() );
+    }
+
+    @Test
+    void overTimeCountsDownThroughTheTick() {
+        AtomicLong clock = new AtomicLong();
+        TickGovernor governor = new TickGovernor( clock::get );
+        Assertions.assertEquals( 0, governor.overTime() );
+        for ( int i = 0; i < 100; i++ ) tick( governor, clock, 20, 50 );
+        governor.tickStart();
+        Assertions.assertTrue( governor.overTime() < 0 );
+        clock.addAndGet( 40 * MS );
+        Assertions.assertTrue( governor.overTime() > 0 );
+    }
+
+    @Test
+    void assumesBusyTicksWithoutEnds() {
+        AtomicLong clock = new AtomicLong();
+        TickGovernor governor = new TickGovernor( clock::get );
+        for ( int i = 0; i < 10; i++ ) {
+            governor.tickStart();
+            clock.addAndGet( 50 * MS );
+        }
+        Assertions.assertEquals( 20 * MS, governor.headroom() );
+    }
+}
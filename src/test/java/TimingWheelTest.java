@@ -0,0 +1,61 @@
+import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
+import io.github.dailystruggle.rtp.common.tasks.TimingWheel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelTest {
+    @Test
+    void comesDueAfterItsDelay() {
+        TimingWheel wheel = new TimingWheel( 8 );
+        List<Long> due = new ArrayList<>();
+        RTPRunnable shortWait = new RTPRunnable( 3 );
+        RTPRunnable longWait = new RTPRunnable( 20 ); //more than one round
+        wheel.add( shortWait );
+        wheel.add( longWait );
+        for ( int i = 0; i < 25; i++ ) {
+            wheel.advance( task -> due.add( wheel.tick() ) );
+        }
+        Assertions.assertEquals( List.of( 3L, 20L ), due );
+        Assertions.assertEquals( 0, shortWait.getDelay() );
+        Assertions.assertEquals( 0, wheel.size() );
+    }
+
+    @Test
+    void cancelledTasksAreDropped() {
+        TimingWheel wheel = new TimingWheel( 8 );
+        RTPRunnable cancelled = new RTPRunnable( 2 );
+        RTPRunnable removed = new RTPRunnable( 2 );
+        wheel.add( cancelled );
+        wheel.add( removed );
+        cancelled.setCancelled( true );
+        Assertions.assertTrue( wheel.remove( removed ) );
+        Assertions.assertEquals( 1, wheel.size() );
+
+        AtomicInteger due = new AtomicInteger();
+        int dropped = 0;
+        for ( int i = 0; i < 4; i++ ) dropped += wheel.advance( task -> due.incrementAndGet() );
+        Assertions.assertEquals( 0, due.get() );
+        Assertions.assertEquals( 1, dropped );
+        Assertions.assertEquals( 0, wheel.size() );
+    }
+
+    @Test
+    void pipeRunsDelayedTasksOnTime() {
+        RTPTaskPipe pipe = new RTPTaskPipe();
+        AtomicInteger runs = new AtomicInteger();
+        pipe.add( new RTPRunnable( runs::incrementAndGet, 3 ) );
+        for ( int pass = 0; pass < 3; pass++ ) {
+            pipe.execute( Long.MAX_VALUE );
+            Assertions.assertEquals( 0, runs.get() );
+            Assertions.assertEquals( 1, pipe.size() );
+        }
+        pipe.execute( Long.MAX_VALUE );
+        Assertions.assertEquals( 1, runs.get() );
+        Assertions.assertEquals( 0, pipe.size() );
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import io.github.dailystruggle.rtp.common.tasks.RTPDelayable;
+import io.github.dailystruggle.rtp.common.tasks.RTPRunnable;
+import io.github.dailystruggle.rtp.common.tasks.RTPTaskPipe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * one pipe pass with 10k delayed teleports waiting, against requeueing every delayed task each pass
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DelayedTaskBenchmark {
+    private static final int WAITING = 10_000;
+    //long enough that none come due during a run
+    private static final long DELAY = Long.MAX_VALUE / 2;
+
+    private RTPTaskPipe pipe;
+    private ArrayDeque<RTPDelayable> requeue;
+    private RTPRunnable[] teleports;
+
+    @Setup
+    public void setup() {
+        pipe = new RTPTaskPipe();
+        requeue = new ArrayDeque<>( WAITING );
+        teleports = new RTPRunnable[WAITING];
+        for ( int i = 0; i < WAITING; i++ ) {
+            teleports[i] = new RTPRunnable( () -> {}, DELAY + i );
+            pipe.add( teleports[i] );
+            requeue.add( new RTPRunnable( () -> {}, DELAY + i ) );
+        }
+        pipe.execute( Long.MAX_VALUE ); //moves them onto the wheel
+    }
+
+    @Benchmark
+    public long wheelPass() {
+        pipe.add( new RTPRunnable( () -> {} ) );
+        pipe.execute( Long.MAX_VALUE );
+        return pipe.size();
+    }
+
+    /**
+     * what a pass cost before - every waiting task polled, decremented and added back
+     */
+    @Benchmark
+    public long requeuePass() {
+        for ( int i = requeue.size(); i > 0; i-- ) {
+            RTPDelayable task = requeue.poll();
+            task.setDelay( task.getDelay() - 1 );
+            requeue.add( task );
+        }
+        return requeue.size();
+    }
+
+    @Benchmark
+    public long cancelAndReplace() {
+        int i = ThreadLocalRandom.current().nextInt( WAITING );
+        pipe.cancel( teleports[i] );
+        teleports[i] = new RTPRunnable( () -> {}, DELAY + i );
+        pipe.add( teleports[i] );
+        pipe.execute( Long.MAX_VALUE );
+        return pipe.size();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include( DelayedTaskBenchmark.class.getSimpleName() )
+                .build();
+        new Runner( options ).run();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import commonTestImpl.TestRTPServerAccessor;
+import commonTestImpl.substitutions.TestRTPWorld;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.selection.region.Region;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * blocking selection against the flat test world
+ * <br>run with the gc profiler to see bytes allocated per selection
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class SelectionBenchmark {
+    private Region region;
+
+    @Setup
+    public void setup() {
+        RTP.serverAccessor = new TestRTPServerAccessor();
+        //initialize to create config files
+        RTP rtp = new RTP();
+
+        int i = 0;
+        while ( rtp.startupTasks.size()>0 ) {
+            rtp.startupTasks.execute( Long.MAX_VALUE );
+            i++;
+            if( i>50 ) break;
+        }
+
+        region = RTP.selectionAPI.getRegion( new TestRTPWorld() );
+        if( region == null ) throw new IllegalStateException( "no region for test world" );
+    }
+
+    @Benchmark
+    public RTPLocation getLocation() {
+        Map.Entry<RTPLocation, Long> res = region.getLocation( null );
+        return ( res == null ) ? null : res.getKey();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include( SelectionBenchmark.class.getSimpleName() )
+                .addProfiler( "gc" )
+                .build();
+        new Runner( options ).run();
+    }
+}
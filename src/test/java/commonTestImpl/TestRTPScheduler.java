@@ -0,0 +1,162 @@
+package commonTestImpl;
+
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * in-process regionized scheduler, advanced by hand with {@link #tick()}
+ * <br>worlds are split into square regions of 32x32 chunks, and everything runs on the calling thread, with the
+ * thread's owner switched to match each task while it runs
+ */
+public class TestRTPScheduler implements RTPScheduler {
+    public static final String GLOBAL = "global";
+    public static final String ASYNC = "async";
+    private static final int regionShift = 5;
+
+    private final class Scheduled implements Task {
+        private final String owner;
+        private final Runnable runnable;
+        private final long period;
+        private long due;
+        private boolean cancelled = false;
+
+        private Scheduled( String owner, Runnable runnable, long delay, long period ) {
+            this.owner = owner;
+            this.runnable = runnable;
+            this.period = period;
+            this.due = tick + Math.max( 0, delay );
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final List<Scheduled> scheduled = new ArrayList<>();
+    private String current = null;
+    private long tick = 0;
+
+    public static String region( RTPWorld world, int chunkX, int chunkZ ) {
+        return world.name() + ":" + ( chunkX >> regionShift ) + "," + ( chunkZ >> regionShift );
+    }
+
+    /**
+     * run everything due by the end of the next tick, including anything scheduled along the way with no delay
+     *
+     * @return tasks run
+     */
+    public int tick() {
+        int res = 0;
+        while ( true ) {
+            List<Scheduled> due = new ArrayList<>();
+            for ( Scheduled task : scheduled ) if ( task.due <= tick ) due.add( task );
+            if ( due.isEmpty() ) break;
+            scheduled.removeAll( due );
+            for ( Scheduled task : due ) {
+                if ( task.cancelled ) continue;
+                runAs( task.owner, task.runnable );
+                res++;
+                if ( task.period > 0 && !task.cancelled ) {
+                    task.due = tick + task.period;
+                    scheduled.add( task );
+                }
+            }
+        }
+        tick++;
+        return res;
+    }
+
+    /**
+     * run as if on the thread of this owner - a region key, {@link #GLOBAL}, or {@link #ASYNC}
+     */
+    public void runAs( String owner, Runnable runnable ) {
+        String previous = current;
+        current = owner;
+        try {
+            runnable.run();
+        } finally {
+            current = previous;
+        }
+    }
+
+    public String current() {
+        return current;
+    }
+
+    public int pending() {
+        return scheduled.size();
+    }
+
+    private Task schedule( String owner, Runnable runnable, long delay, long period ) {
+        Scheduled task = new Scheduled( owner, runnable, delay, period );
+        scheduled.add( task );
+        return task;
+    }
+
+    @Override
+    public Task runGlobal( Runnable runnable, long delay ) {
+        return schedule( GLOBAL, runnable, delay, 0 );
+    }
+
+    @Override
+    public Task runGlobalTimer( Runnable runnable, long delay, long period ) {
+        return schedule( GLOBAL, runnable, delay, Math.max( 1, period ) );
+    }
+
+    @Override
+    public Task runAsync( Runnable runnable, long delay ) {
+        return schedule( ASYNC, runnable, delay, 0 );
+    }
+
+    @Override
+    public Task runAsyncTimer( Runnable runnable, long delay, long period ) {
+        return schedule( ASYNC, runnable, delay, Math.max( 1, period ) );
+    }
+
+    @Override
+    public Task runAt( RTPWorld world, int chunkX, int chunkZ, Runnable runnable, long delay ) {
+        return schedule( region( world, chunkX, chunkZ ), runnable, delay, 0 );
+    }
+
+    @Override
+    public Task runFor( RTPPlayer player, Runnable runnable, Runnable retired, long delay ) {
+        RTPLocation location = player.getLocation();
+        String owner = region( location.world(), location.x() >> 4, location.z() >> 4 );
+        return schedule( owner, () -> {
+            if ( player.isOnline() ) runnable.run();
+            else retired.run();
+        }, delay, 0 );
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return GLOBAL.equals( current );
+    }
+
+    @Override
+    public boolean owns( RTPWorld world, int chunkX, int chunkZ ) {
+        return region( world, chunkX, chunkZ ).equals( current );
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public void cancelAll() {
+        for ( Scheduled task : scheduled ) task.cancel();
+        scheduled.clear();
+    }
+}
@@ -9,6 +9,7 @@ import io.github.dailystruggle.rtp.common.configuration.enums.RegionKeys;
 import io.github.dailystruggle.rtp.common.selection.region.Region;
 import io.github.dailystruggle.rtp.common.selection.region.selectors.shapes.Shape;
 import io.github.dailystruggle.rtp.common.selection.worldborder.WorldBorder;
+import io.github.dailystruggle.rtp.common.serverSide.RTPScheduler;
 import io.github.dailystruggle.rtp.common.serverSide.RTPServerAccessor;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPCommandSender;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPPlayer;
@@ -30,6 +31,8 @@ public class TestRTPServerAccessor implements RTPServerAccessor {
     private Integer intVersion = null;
 
     Function<String,Shape<?>> shapeFunction;
+    Function<String, WorldBorder> worldBorderFunction = s -> null;
+    private final TestRTPScheduler scheduler = new TestRTPScheduler();
 
     public TestRTPServerAccessor() {
         //run later to ensure RTP instance exists
@@ -191,13 +194,19 @@ public class TestRTPServerAccessor implements RTPServerAccessor {
         return false;
     }
 
+    @Override
+    public RTPScheduler scheduler() {
+        return scheduler;
+    }
+
     @Override
     public @Nullable WorldBorder getWorldBorder( String worldName ) {
-        return null;
+        return worldBorderFunction.apply( worldName );
     }
 
     @Override
     public boolean setWorldBorderFunction( Function<String, WorldBorder> function ) {
+        worldBorderFunction = function;
         return true;
     }
 
@@ -1,5 +1,64 @@
 package commonTestImpl.substitutions;
 
-public class TestRTPBlock {
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPBlock;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
+import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
 
+/**
+ * flat world block - stone up to {@link TestRTPBlock#SURFACE}, air above
+ */
+public class TestRTPBlock implements RTPBlock {
+    public static final int SURFACE = 64;
+
+    private final RTPWorld world;
+    private final int x;
+    private final int y;
+    private final int z;
+
+    public TestRTPBlock( RTPWorld world, int x, int y, int z ) {
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public RTPLocation getLocation() {
+        return new RTPLocation( world, x, y, z );
+    }
+
+    @Override
+    public boolean isAir() {
+        return y > SURFACE;
+    }
+
+    @Override
+    public int x() {
+        return x;
+    }
+
+    @Override
+    public int y() {
+        return y;
+    }
+
+    @Override
+    public int z() {
+        return z;
+    }
+
+    @Override
+    public RTPWorld world() {
+        return world;
+    }
+
+    @Override
+    public int skyLight() {
+        return isAir() ? 15 : 0;
+    }
+
+    @Override
+    public String getMaterial() {
+        return isAir() ? "AIR" : "STONE";
+    }
 }
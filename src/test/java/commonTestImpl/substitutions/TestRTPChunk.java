@@ -6,30 +6,43 @@ import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
 
 public class TestRTPChunk implements RTPChunk {
+    private final RTPWorld world;
+    private final int x;
+    private final int z;
+
+    public TestRTPChunk() {
+        this( null, 0, 0 );
+    }
+
+    public TestRTPChunk( RTPWorld world, int x, int z ) {
+        this.world = world;
+        this.x = x;
+        this.z = z;
+    }
 
     @Override
     public int x() {
-        return 0;
+        return x;
     }
 
     @Override
     public int z() {
-        return 0;
+        return z;
     }
 
     @Override
     public RTPBlock getBlockAt( int x, int y, int z ) {
-        return null;
+        return new TestRTPBlock( world, this.x * 16 + Math.floorMod( x, 16 ), y, this.z * 16 + Math.floorMod( z, 16 ) );
     }
 
     @Override
     public RTPBlock getBlockAt( RTPLocation location ) {
-        return null;
+        return getBlockAt( location.x(), location.y(), location.z() );
     }
 
     @Override
     public RTPWorld getWorld() {
-        return null;
+        return world;
     }
 
     @Override
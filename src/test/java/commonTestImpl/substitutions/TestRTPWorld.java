@@ -3,6 +3,8 @@ package commonTestImpl.substitutions;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPChunk;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPLocation;
 import io.github.dailystruggle.rtp.common.serverSide.substitutions.RTPWorld;
+import io.github.dailystruggle.rtp.common.tools.ChunkKey;
+import io.github.dailystruggle.rtp.common.tools.LongObjectHashMap;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -12,6 +14,9 @@ import java.util.concurrent.CompletableFuture;
 public class TestRTPWorld implements RTPWorld {
     private static final UUID id = UUID.randomUUID();
 
+    //chunks are generated once and shared, so repeated lookups don't skew benchmarks
+    private static final LongObjectHashMap<CompletableFuture<RTPChunk>> chunks = new LongObjectHashMap<>( 1024 );
+
     @Override
     public String name() {
         return "TEST";
@@ -24,7 +29,10 @@ public class TestRTPWorld implements RTPWorld {
 
     @Override
     public CompletableFuture<RTPChunk> getChunkAt( int chunkX, int chunkZ ) {
-        return null;
+        synchronized ( chunks ) {
+            return chunks.computeIfAbsent( ChunkKey.pack( chunkX, chunkZ ),
+                    key -> CompletableFuture.completedFuture( new TestRTPChunk( this, chunkX, chunkZ ) ) );
+        }
     }
 
     @Override
@@ -44,12 +52,12 @@ public class TestRTPWorld implements RTPWorld {
 
     @Override
     public String getBiome( int x, int y, int z ) {
-        return null;
+        return "PLAINS";
     }
 
     @Override
-    public void platform( RTPLocation location ) {
-
+    public CompletableFuture<Void> platform( RTPLocation location ) {
+        return CompletableFuture.completedFuture( null );
     }
 
     @Override
@@ -69,12 +77,12 @@ public class TestRTPWorld implements RTPWorld {
 
     @Override
     public int getMaxHeight() {
-        return 0;
+        return 320;
     }
 
     @Override
     public int getMinHeight() {
-        return 0;
+        return -64;
     }
 
     public static Set<String> getBiomes() {
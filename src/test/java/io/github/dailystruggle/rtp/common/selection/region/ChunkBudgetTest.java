@@ -0,0 +1,112 @@
+package io.github.dailystruggle.rtp.common.selection.region;
+
+import commonTestImpl.TestRTPServerAccessor;
+import commonTestImpl.substitutions.TestRTPWorld;
+import io.github.dailystruggle.rtp.common.RTP;
+import io.github.dailystruggle.rtp.common.tools.RateEstimator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+//same package as ChunkBudget, which is package-private
+public class ChunkBudgetTest {
+    private Region template;
+
+    /**
+     * region with a set number of kept chunks and recent requests, which frees at most a set number when downgraded
+     */
+    private static final class StubRegion extends Region {
+        private long kept;
+        private long freeable;
+        private long downgraded = 0;
+
+        private StubRegion( Region template, String name, long kept, long freeable, double requests ) {
+            super( name, template.getData() );
+            this.kept = kept;
+            this.freeable = freeable;
+            //a stopped clock, so the rates hold still
+            requestRate = new RateEstimator( BiomePools.DEMAND_HALF_LIFE, () -> 0L );
+            if ( requests > 0 ) requestRate.record( requests );
+        }
+
+        private StubRegion( Region template, String name, long kept, double requests ) {
+            this( template, name, kept, kept, requests );
+        }
+
+        @Override
+        public long keptChunks() {
+            return kept;
+        }
+
+        @Override
+        long downgrade( long excess ) {
+            long freed = Math.min( excess, freeable );
+            freeable -= freed;
+            kept -= freed;
+            downgraded += freed;
+            return freed;
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        RTP.serverAccessor = new TestRTPServerAccessor();
+        //initialize to create config files
+        RTP rtp = new RTP();
+
+        int i = 0;
+        while ( rtp.startupTasks.size()>0 ) {
+            rtp.startupTasks.execute( Long.MAX_VALUE );
+            i++;
+            if( i>50 ) break;
+        }
+
+        template = RTP.selectionAPI.getRegion( new TestRTPWorld() );
+        Assertions.assertNotNull( template );
+    }
+
+    @Test
+    void quietRegionKeepsItsFloor() {
+        StubRegion busy = new StubRegion( template, "busy", 0, 100 );
+        StubRegion quiet = new StubRegion( template, "quiet", 500, 0 );
+        ChunkBudget.rebalance( Arrays.asList( busy, quiet ), 400 );
+
+        //floor = 0.1 * demand / 2 regions, so quiet gets 400 * 0.05 / 1.1 of the budget
+        Assertions.assertEquals( 18, quiet.keptChunks() );
+        Assertions.assertEquals( 500 - 18, quiet.downgraded );
+        Assertions.assertEquals( 0, busy.downgraded );
+    }
+
+    @Test
+    void downgradesWhatsOverEachShare() {
+        StubRegion a = new StubRegion( template, "a", 300, 300 );
+        StubRegion b = new StubRegion( template, "b", 300, 100 );
+        ChunkBudget.rebalance( Arrays.asList( a, b ), 400 );
+
+        //demand 3:1 plus a floor of 0.2 each - shares of 400 * 3.2 / 4.4 and 400 * 1.2 / 4.4
+        Assertions.assertEquals( 300 - 290, a.downgraded );
+        Assertions.assertEquals( 300 - 109, b.downgraded );
+        Assertions.assertFalse( ChunkBudget.exhausted() );
+    }
+
+    @Test
+    void exhaustedWhileStillOverBudget() {
+        //holds its chunks for pending teleports, so downgrading frees nothing
+        StubRegion stuck = new StubRegion( template, "stuck", 500, 0, 10 );
+        ChunkBudget.rebalance( Arrays.asList( stuck ), 400 );
+        Assertions.assertTrue( ChunkBudget.exhausted() );
+
+        stuck.kept = 100;
+        ChunkBudget.rebalance( Arrays.asList( stuck ), 400 );
+        Assertions.assertFalse( ChunkBudget.exhausted() );
+
+        stuck.kept = 500;
+        ChunkBudget.rebalance( Arrays.asList( stuck ), 400 );
+        Assertions.assertTrue( ChunkBudget.exhausted() );
+        //no budget, no limit
+        ChunkBudget.rebalance( Arrays.asList( stuck ), 0 );
+        Assertions.assertFalse( ChunkBudget.exhausted() );
+    }
+}